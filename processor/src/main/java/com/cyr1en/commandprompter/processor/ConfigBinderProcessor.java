@@ -0,0 +1,391 @@
+package com.cyr1en.commandprompter.processor;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.AnnotationMirror;
+import javax.lang.model.element.AnnotationValue;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.ElementFilter;
+import javax.tools.Diagnostic;
+import javax.tools.JavaFileObject;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Generates a {@code ConfigBinder} for every type annotated with {@code @Configuration}.
+ *
+ * <p>The generated binder reads and writes every {@code @ConfigNode} field with plain field
+ * assignments, so the config records are never touched through reflection at runtime.
+ * Defaults are parsed here, a default that doesn't fit its field is a compile error.</p>
+ *
+ * <p>Annotations are matched by name so this processor doesn't depend on the plugin.</p>
+ */
+public class ConfigBinderProcessor extends AbstractProcessor {
+
+    private static final String ANNOTATIONS = "com.cyr1en.commandprompter.config.annotations.";
+    private static final String CONFIGURATION = ANNOTATIONS + "type.Configuration";
+    private static final String CONFIG_PATH = ANNOTATIONS + "type.ConfigPath";
+    private static final String CONFIG_HEADER = ANNOTATIONS + "type.ConfigHeader";
+    private static final String CONFIG_NODE = ANNOTATIONS + "field.ConfigNode";
+    private static final String NODE_NAME = ANNOTATIONS + "field.NodeName";
+    private static final String NODE_DEFAULT = ANNOTATIONS + "field.NodeDefault";
+    private static final String NODE_COMMENT = ANNOTATIONS + "field.NodeComment";
+
+    private static final String BINDER_INTERFACE = "com.cyr1en.commandprompter.config.ConfigBinder";
+    private static final String CONFIG = "com.cyr1en.kiso.mc.configuration.base.Config";
+
+    @Override
+    public Set<String> getSupportedAnnotationTypes() {
+        return Collections.singleton(CONFIGURATION);
+    }
+
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+        return SourceVersion.latestSupported();
+    }
+
+    @Override
+    public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+        for (TypeElement annotation : annotations) {
+            for (Element element : roundEnv.getElementsAnnotatedWith(annotation)) {
+                if (element.getKind() != ElementKind.CLASS) {
+                    error(element, "@Configuration can only be used on classes");
+                    continue;
+                }
+                TypeElement type = (TypeElement) element;
+                ConfigType config = readConfigType(type);
+                if (config != null)
+                    writeBinder(type, config);
+            }
+        }
+        return true;
+    }
+
+    private ConfigType readConfigType(TypeElement type) {
+        boolean hasConstructor = false;
+        for (ExecutableElement constructor : ElementFilter.constructorsIn(type.getEnclosedElements())) {
+            if (constructor.getParameters().isEmpty() && !constructor.getModifiers().contains(Modifier.PRIVATE))
+                hasConstructor = true;
+        }
+        if (!hasConstructor) {
+            error(type, "Configuration needs a non-private no-arg constructor");
+            return null;
+        }
+
+        String simpleName = type.getSimpleName().toString();
+        AnnotationMirror pathMirror = getMirror(type, CONFIG_PATH);
+        String path = pathMirror == null ? simpleName : (String) getValue(pathMirror);
+
+        AnnotationMirror headerMirror = getMirror(type, CONFIG_HEADER);
+        List<String> header = new ArrayList<>();
+        if (headerMirror == null) {
+            header.add(simpleName);
+            header.add("Configuration");
+        } else
+            header.addAll(getStrings(headerMirror));
+
+        boolean hasRawConfig = false;
+        List<Node> nodes = new ArrayList<>();
+        boolean valid = true;
+        for (VariableElement field : ElementFilter.fieldsIn(type.getEnclosedElements())) {
+            if (field.getSimpleName().contentEquals("rawConfig") &&
+                    field.asType().toString().equals(CONFIG)) {
+                hasRawConfig = true;
+                continue;
+            }
+            if (getMirror(field, CONFIG_NODE) == null) continue;
+            Node node = readNode(field);
+            if (node == null)
+                valid = false;
+            else
+                nodes.add(node);
+        }
+        return valid ? new ConfigType(path, header, hasRawConfig, nodes) : null;
+    }
+
+    private Node readNode(VariableElement field) {
+        Set<Modifier> modifiers = field.getModifiers();
+        if (modifiers.contains(Modifier.PRIVATE) || modifiers.contains(Modifier.FINAL) ||
+                modifiers.contains(Modifier.STATIC)) {
+            error(field, "@ConfigNode fields can't be private, final or static");
+            return null;
+        }
+
+        NodeType nodeType = NodeType.of(field.asType());
+        if (nodeType == null) {
+            error(field, "@ConfigNode fields must be int, boolean, double, String or List");
+            return null;
+        }
+
+        AnnotationMirror nameMirror = getMirror(field, NODE_NAME);
+        String name = nameMirror == null ? field.getSimpleName().toString() : (String) getValue(nameMirror);
+
+        AnnotationMirror commentMirror = getMirror(field, NODE_COMMENT);
+        List<String> comment = commentMirror == null ? Collections.emptyList() : getStrings(commentMirror);
+
+        AnnotationMirror defaultMirror = getMirror(field, NODE_DEFAULT);
+        String defaultExpression;
+        if (defaultMirror == null)
+            defaultExpression = nodeType.emptyDefault;
+        else {
+            defaultExpression = nodeType.parseDefault((String) getValue(defaultMirror));
+            if (defaultExpression == null) {
+                error(field, "Default '" + getValue(defaultMirror) + "' is not a valid " + nodeType.description);
+                return null;
+            }
+        }
+        return new Node(field.getSimpleName().toString(), name, nodeType, defaultExpression, comment);
+    }
+
+    private void writeBinder(TypeElement type, ConfigType config) {
+        String packageName = processingEnv.getElementUtils().getPackageOf(type).getQualifiedName().toString();
+        String typeName = type.getSimpleName().toString();
+        String binderName = typeName + "Binder";
+        String qualifiedName = packageName.isEmpty() ? binderName : packageName + "." + binderName;
+
+        StringBuilder src = new StringBuilder();
+        if (!packageName.isEmpty())
+            src.append("package ").append(packageName).append(";\n\n");
+        src.append("/**\n * Generated by ").append(getClass().getSimpleName())
+                .append(" for {@link ").append(typeName).append("}. Do not edit.\n */\n");
+        src.append("public final class ").append(binderName)
+                .append(" implements ").append(BINDER_INTERFACE).append("<").append(typeName).append("> {\n\n");
+
+        src.append("    @Override\n    public String getPath() {\n        return ")
+                .append(literal(config.path)).append(";\n    }\n\n");
+
+        src.append("    @Override\n    public String[] getHeader() {\n        return ")
+                .append(stringArray(config.header)).append(";\n    }\n\n");
+
+        src.append("    @Override\n    public boolean writeDefaults(").append(CONFIG).append(" config) {\n");
+        src.append("        boolean changed = false;\n");
+        for (Node node : config.nodes) {
+            src.append("        if (config.get(").append(literal(node.name)).append(") == null) {\n");
+            src.append("            config.set(").append(literal(node.name)).append(", ").append(node.defaultExpression)
+                    .append(", ").append(stringArray(node.comment)).append(");\n");
+            src.append("            changed = true;\n        }\n");
+        }
+        src.append("        return changed;\n    }\n\n");
+
+        src.append("    @Override\n    public java.util.List<String> validate(").append(CONFIG).append(" config) {\n");
+        src.append("        java.util.List<String> problems = new java.util.ArrayList<>();\n");
+        for (Node node : config.nodes) {
+            if (node.type.instanceCheck == null) continue;
+            src.append("        if (!(config.get(").append(literal(node.name)).append(") instanceof ")
+                    .append(node.type.instanceCheck).append("))\n");
+            src.append("            problems.add(").append(literal("'" + node.name + "' should be a " +
+                    node.type.description)).append(");\n");
+        }
+        src.append("        return problems;\n    }\n\n");
+
+        src.append("    @Override\n    @SuppressWarnings({\"unchecked\", \"rawtypes\"})\n");
+        src.append("    public ").append(typeName).append(" bind(").append(CONFIG).append(" config) {\n");
+        src.append("        ").append(typeName).append(" out = new ").append(typeName).append("();\n");
+        if (config.hasRawConfig)
+            src.append("        out.rawConfig = config;\n");
+        for (Node node : config.nodes) {
+            src.append("        out.").append(node.fieldName).append(" = ")
+                    .append(String.format(node.type.readExpression, literal(node.name))).append(";\n");
+        }
+        src.append("        return out;\n    }\n\n");
+
+        src.append("    @Override\n    public java.util.Set<String> diff(").append(typeName).append(" oldConfig, ")
+                .append(typeName).append(" newConfig) {\n");
+        src.append("        java.util.Set<String> changed = new java.util.LinkedHashSet<>();\n");
+        for (Node node : config.nodes) {
+            src.append("        if (!java.util.Objects.equals(oldConfig.").append(node.fieldName)
+                    .append(", newConfig.").append(node.fieldName).append("))\n");
+            src.append("            changed.add(").append(literal(node.name)).append(");\n");
+        }
+        src.append("        return changed;\n    }\n}\n");
+
+        try {
+            JavaFileObject file = processingEnv.getFiler().createSourceFile(qualifiedName, type);
+            try (Writer writer = file.openWriter()) {
+                writer.write(src.toString());
+            }
+        } catch (IOException e) {
+            error(type, "Could not write " + qualifiedName + ": " + e.getMessage());
+        }
+    }
+
+    private static AnnotationMirror getMirror(Element element, String annotationName) {
+        for (AnnotationMirror mirror : element.getAnnotationMirrors()) {
+            TypeElement annotationType = (TypeElement) mirror.getAnnotationType().asElement();
+            if (annotationType.getQualifiedName().contentEquals(annotationName))
+                return mirror;
+        }
+        return null;
+    }
+
+    private static Object getValue(AnnotationMirror mirror) {
+        for (Map.Entry<? extends ExecutableElement, ? extends AnnotationValue> entry :
+                mirror.getElementValues().entrySet()) {
+            if (entry.getKey().getSimpleName().contentEquals("value"))
+                return entry.getValue().getValue();
+        }
+        return null;
+    }
+
+    private static List<String> getStrings(AnnotationMirror mirror) {
+        List<String> out = new ArrayList<>();
+        Object value = getValue(mirror);
+        if (value instanceof List) {
+            for (Object o : (List<?>) value)
+                out.add((String) ((AnnotationValue) o).getValue());
+        } else if (value instanceof String)
+            out.add((String) value);
+        return out;
+    }
+
+    private static String stringArray(List<String> values) {
+        StringBuilder sb = new StringBuilder("new String[]{");
+        for (int i = 0; i < values.size(); i++) {
+            if (i > 0) sb.append(", ");
+            sb.append(literal(values.get(i)));
+        }
+        return sb.append("}").toString();
+    }
+
+    /**
+     * Java string literal for a value. Non-ASCII is escaped so the generated file doesn't
+     * depend on the source encoding.
+     */
+    private static String literal(String value) {
+        StringBuilder sb = new StringBuilder("\"");
+        for (char c : value.toCharArray()) {
+            switch (c) {
+                case '"': sb.append("\\\""); break;
+                case '\\': sb.append("\\\\"); break;
+                case '\n': sb.append("\\n"); break;
+                case '\r': sb.append("\\r"); break;
+                case '\t': sb.append("\\t"); break;
+                default:
+                    if (c < 0x20 || c > 0x7e)
+                        sb.append(String.format("\\u%04x", (int) c));
+                    else
+                        sb.append(c);
+            }
+        }
+        return sb.append("\"").toString();
+    }
+
+    private void error(Element element, String message) {
+        processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, message, element);
+    }
+
+    private static final class ConfigType {
+        private final String path;
+        private final List<String> header;
+        private final boolean hasRawConfig;
+        private final List<Node> nodes;
+
+        private ConfigType(String path, List<String> header, boolean hasRawConfig, List<Node> nodes) {
+            this.path = path;
+            this.header = header;
+            this.hasRawConfig = hasRawConfig;
+            this.nodes = nodes;
+        }
+    }
+
+    private static final class Node {
+        private final String fieldName;
+        private final String name;
+        private final NodeType type;
+        private final String defaultExpression;
+        private final List<String> comment;
+
+        private Node(String fieldName, String name, NodeType type, String defaultExpression, List<String> comment) {
+            this.fieldName = fieldName;
+            this.name = name;
+            this.type = type;
+            this.defaultExpression = defaultExpression;
+            this.comment = comment;
+        }
+    }
+
+    /**
+     * Supported field types, mirroring what ConfigurationManager handles through reflection.
+     */
+    private enum NodeType {
+        INT("config.getInt(%s)", "Number", "number", "0"),
+        BOOLEAN("config.getBoolean(%s)", "Boolean", "boolean", "false"),
+        DOUBLE("config.getDouble(%s)", "Number", "number", "0.0"),
+        LIST("(java.util.List) config.getList(%s)", "java.util.List", "list", "new java.util.ArrayList<>()"),
+        STRING("config.getString(%s)", null, "string", "\"\"");
+
+        private final String readExpression;
+        private final String instanceCheck;
+        private final String description;
+        private final String emptyDefault;
+
+        NodeType(String readExpression, String instanceCheck, String description, String emptyDefault) {
+            this.readExpression = readExpression;
+            this.instanceCheck = instanceCheck;
+            this.description = description;
+            this.emptyDefault = emptyDefault;
+        }
+
+        private static NodeType of(TypeMirror type) {
+            if (type.getKind() == TypeKind.INT) return INT;
+            if (type.getKind() == TypeKind.BOOLEAN) return BOOLEAN;
+            if (type.getKind() == TypeKind.DOUBLE) return DOUBLE;
+            if (type.getKind() != TypeKind.DECLARED) return null;
+            String name = type.toString();
+            int generic = name.indexOf('<');
+            if (generic != -1) name = name.substring(0, generic);
+            if (name.equals("java.util.List")) return LIST;
+            if (name.equals("java.lang.String")) return STRING;
+            return null;
+        }
+
+        /**
+         * Turn a {@code @NodeDefault} value into a Java expression.
+         *
+         * @return the expression, or null if the value doesn't fit this type.
+         */
+        private String parseDefault(String value) {
+            switch (this) {
+                case INT:
+                    try {
+                        return String.valueOf(Integer.parseInt(value));
+                    } catch (NumberFormatException e) {
+                        return null;
+                    }
+                case BOOLEAN:
+                    if (value.equalsIgnoreCase("true") || value.equalsIgnoreCase("false"))
+                        return String.valueOf(Boolean.parseBoolean(value));
+                    return null;
+                case DOUBLE:
+                    try {
+                        return String.valueOf(Double.parseDouble(value)) + "d";
+                    } catch (NumberFormatException e) {
+                        return null;
+                    }
+                case LIST:
+                    StringBuilder sb = new StringBuilder("new java.util.ArrayList<>(java.util.Arrays.asList(");
+                    String[] items = value.split(",\\s+");
+                    for (int i = 0; i < items.length; i++) {
+                        if (i > 0) sb.append(", ");
+                        sb.append(literal(items[i]));
+                    }
+                    return sb.append("))").toString();
+                default:
+                    return literal(value);
+            }
+        }
+    }
+}
@@ -0,0 +1,74 @@
+package com.cyr1en.commandprompter.listener;
+
+import com.cyr1en.commandprompter.CommandPrompter;
+import com.cyr1en.commandprompter.fixture.StubPlugin;
+import com.cyr1en.commandprompter.fixture.StubServer;
+import com.cyr1en.commandprompter.prompt.PromptRegistry;
+import org.bukkit.entity.Player;
+import org.bukkit.event.player.PlayerCommandPreprocessEvent;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Main thread cost of a command going through {@link VanillaListener}, from the
+ * command event to the first prompt being scheduled.
+ *
+ * <p>Most commands on a server have no prompts, so {@link #plainCommand()} is the cost
+ * every command pays. {@link #promptCommand()} unregisters the started session again so
+ * the next operation isn't rejected as "in progress".</p>
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CommandListenerBenchmark {
+
+    private static final String PLAIN_COMMAND = "/give Bench diamond 64";
+    private static final String PROMPT_COMMAND = "/give Bench diamond <Amount>";
+
+    private VanillaListener listener;
+    private PromptRegistry registry;
+    private Player player;
+
+    @Setup
+    public void setup() {
+        StubServer server = StubServer.get();
+        CommandPrompter plugin = StubPlugin.create(server);
+        listener = new VanillaListener(plugin.getPromptManager());
+        registry = plugin.getPromptManager().getPromptRegistry();
+        player = server.join("Bench", server.world("world"));
+    }
+
+    @TearDown
+    public void tearDown() {
+        StubServer.get().reset();
+    }
+
+    @Benchmark
+    public boolean plainCommand() {
+        PlayerCommandPreprocessEvent event = new PlayerCommandPreprocessEvent(player, PLAIN_COMMAND);
+        listener.onCommand(event);
+        return event.isCancelled();
+    }
+
+    @Benchmark
+    public boolean promptCommand() {
+        PlayerCommandPreprocessEvent event = new PlayerCommandPreprocessEvent(player, PROMPT_COMMAND);
+        listener.onCommand(event);
+        registry.unregister(player);
+        return event.isCancelled();
+    }
+}
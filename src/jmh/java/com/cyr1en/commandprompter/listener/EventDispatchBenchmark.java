@@ -0,0 +1,85 @@
+package com.cyr1en.commandprompter.listener;
+
+import org.bukkit.event.Event;
+import org.bukkit.event.EventException;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.HandlerList;
+import org.bukkit.event.Listener;
+import org.bukkit.plugin.RegisteredListener;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-event dispatch cost of a handler called through Spigot's reflective executor
+ * versus one generated by {@link EventRegistrar}.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EventDispatchBenchmark {
+
+    private BenchListener listener;
+    private BenchEvent event;
+    private RegisteredListener reflective;
+    private RegisteredListener generated;
+
+    @Setup
+    public void setup() throws NoSuchMethodException {
+        listener = new BenchListener();
+        event = new BenchEvent();
+        Method method = BenchListener.class.getMethod("onEvent", BenchEvent.class);
+        reflective = new RegisteredListener(listener, EventRegistrar.reflectiveExecutor(method, BenchEvent.class),
+                EventPriority.NORMAL, null, false);
+        generated = new RegisteredListener(listener, EventRegistrar.createExecutor(method, BenchEvent.class),
+                EventPriority.NORMAL, null, false);
+    }
+
+    @Benchmark
+    public int reflective() throws EventException {
+        reflective.callEvent(event);
+        return listener.count;
+    }
+
+    @Benchmark
+    public int generated() throws EventException {
+        generated.callEvent(event);
+        return listener.count;
+    }
+
+    public static class BenchListener implements Listener {
+        private int count;
+
+        @EventHandler
+        public void onEvent(BenchEvent event) {
+            count++;
+        }
+    }
+
+    public static class BenchEvent extends Event {
+        private static final HandlerList HANDLERS = new HandlerList();
+
+        @Override
+        public HandlerList getHandlers() {
+            return HANDLERS;
+        }
+
+        public static HandlerList getHandlerList() {
+            return HANDLERS;
+        }
+    }
+}
@@ -0,0 +1,94 @@
+package com.cyr1en.commandprompter.load;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Drives CommandPrompter with thousands of scripted players on a simulated server and
+ * reports main thread time per tick, session throughput and heap growth per scenario.
+ *
+ * <p>Run with {@code ./gradlew loadTest}, options go in {@code --args}:</p>
+ * <pre>
+ *     --players 1000      simulated players
+ *     --ticks 1200        ticks to run before draining, 20 per second
+ *     --prompts 2         prompts per command
+ *     --timeout 10        prompt timeout in seconds
+ *     --seed 42           seed of the players' decisions
+ *     --scenarios answer,cancel,timeout,mixed
+ * </pre>
+ */
+public final class LoadHarness {
+
+    private LoadHarness() {
+    }
+
+    public static void main(String[] args) {
+        Settings settings = Settings.parse(args);
+        // A short run first so the JIT has seen the hot paths before anything is measured.
+        Settings warmUp = settings.copy();
+        warmUp.ticks = Math.min(settings.ticks, 200);
+        new ScenarioRun(Scenario.MIXED, warmUp).run();
+
+        for (Scenario scenario : settings.scenarios) {
+            ScenarioRun run = new ScenarioRun(scenario, settings);
+            run.run();
+            run.report(System.out);
+            System.out.println();
+        }
+    }
+
+    static final class Settings {
+        int players = 1000;
+        int ticks = 1200;
+        int prompts = 2;
+        int timeoutSeconds = 10;
+        long seed = 42;
+        List<Scenario> scenarios = new ArrayList<>();
+
+        static Settings parse(String[] args) {
+            Settings settings = new Settings();
+            for (int i = 0; i + 1 < args.length; i += 2) {
+                String value = args[i + 1];
+                switch (args[i]) {
+                    case "--players":
+                        settings.players = Integer.parseInt(value);
+                        break;
+                    case "--ticks":
+                        settings.ticks = Integer.parseInt(value);
+                        break;
+                    case "--prompts":
+                        settings.prompts = Math.max(1, Integer.parseInt(value));
+                        break;
+                    case "--timeout":
+                        settings.timeoutSeconds = Math.max(1, Integer.parseInt(value));
+                        break;
+                    case "--seed":
+                        settings.seed = Long.parseLong(value);
+                        break;
+                    case "--scenarios":
+                        for (String name : value.split(","))
+                            settings.scenarios.add(Scenario.of(name));
+                        break;
+                    default:
+                        throw new IllegalArgumentException("Unknown option: " + args[i]);
+                }
+            }
+            if (settings.scenarios.isEmpty()) {
+                for (Scenario scenario : Scenario.values())
+                    settings.scenarios.add(scenario);
+            }
+            return settings;
+        }
+
+        Settings copy() {
+            Settings copy = new Settings();
+            copy.players = players;
+            copy.ticks = ticks;
+            copy.prompts = prompts;
+            copy.timeoutSeconds = timeoutSeconds;
+            copy.seed = seed;
+            copy.scenarios = new ArrayList<>(scenarios);
+            return copy;
+        }
+    }
+}
@@ -0,0 +1,38 @@
+package com.cyr1en.commandprompter.load;
+
+import java.util.Locale;
+import java.util.Random;
+
+/**
+ * What the simulated players do with the prompts they get.
+ */
+enum Scenario {
+    ANSWER(100, 0),
+    CANCEL(0, 100),
+    TIMEOUT(0, 0),
+    MIXED(70, 15);
+
+    private final int answerPercent;
+    private final int cancelPercent;
+
+    /**
+     * Players that neither answer nor cancel ignore the prompt until it times out.
+     */
+    Scenario(int answerPercent, int cancelPercent) {
+        this.answerPercent = answerPercent;
+        this.cancelPercent = cancelPercent;
+    }
+
+    SimulatedPlayer.Plan pick(Random random) {
+        int roll = random.nextInt(100);
+        if (roll < answerPercent)
+            return SimulatedPlayer.Plan.ANSWER;
+        if (roll < answerPercent + cancelPercent)
+            return SimulatedPlayer.Plan.CANCEL;
+        return SimulatedPlayer.Plan.IGNORE;
+    }
+
+    static Scenario of(String name) {
+        return valueOf(name.trim().toUpperCase(Locale.ROOT));
+    }
+}
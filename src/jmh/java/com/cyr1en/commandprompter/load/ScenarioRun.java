@@ -0,0 +1,238 @@
+package com.cyr1en.commandprompter.load;
+
+import com.cyr1en.commandprompter.CommandPrompter;
+import com.cyr1en.commandprompter.config.CommandPrompterConfig;
+import com.cyr1en.commandprompter.config.PromptConfig;
+import com.cyr1en.commandprompter.fixture.StubPlugin;
+import com.cyr1en.commandprompter.fixture.StubScheduler;
+import com.cyr1en.commandprompter.fixture.StubServer;
+import com.cyr1en.commandprompter.listener.VanillaListener;
+import com.cyr1en.commandprompter.prompt.PromptRegistry;
+import com.cyr1en.commandprompter.prompt.PromptResponseListener;
+
+import java.io.PrintStream;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * One scenario of the load harness: a fresh plugin, a number of simulated players and a
+ * fixed number of ticks, followed by a drain until every session ended.
+ *
+ * <p>Each tick has two timed parts. The main thread part runs the scheduler (prompts being
+ * sent, answers being processed, timeouts and dispatched commands) and the commands
+ * players run. The chat part runs the chat listener for the answers, which the server
+ * would do on a chat thread.</p>
+ */
+final class ScenarioRun {
+
+    static final int START_SPREAD_TICKS = 100;
+    private static final int WORLDS = 4;
+    private static final int HEAP_SAMPLE_TICKS = 20;
+    private static final long TICK_BUDGET_NANOS = TimeUnit.MILLISECONDS.toNanos(50);
+
+    enum Outcome {
+        COMPLETED,
+        CANCELLED,
+        TIMED_OUT
+    }
+
+    private final Scenario scenario;
+    private final LoadHarness.Settings settings;
+    private final Random random;
+    private final StubServer server;
+    private final StubScheduler scheduler;
+    private final MemoryMXBean memory;
+    private final TickStats mainThread;
+    private final TickStats chatThread;
+    private final int[] outcomes;
+
+    private VanillaListener commandListener;
+    private PromptResponseListener chatListener;
+    private PromptRegistry registry;
+    private String cancelKeyword;
+
+    private int started;
+    private int rejected;
+    private long sessionTicks;
+    private int dispatched;
+    private int wrongCommands;
+    private int drainTicks;
+    private long wallNanos;
+    private long heapBefore;
+    private long heapPeak;
+    private long heapAfter;
+    private int leftoverSessions;
+    private int leftoverTasks;
+
+    ScenarioRun(Scenario scenario, LoadHarness.Settings settings) {
+        this.scenario = scenario;
+        this.settings = settings;
+        this.random = new Random(settings.seed);
+        this.server = StubServer.get();
+        this.scheduler = server.getScheduler();
+        this.memory = ManagementFactory.getMemoryMXBean();
+        this.mainThread = new TickStats(settings.ticks);
+        this.chatThread = new TickStats(settings.ticks);
+        this.outcomes = new int[Outcome.values().length];
+    }
+
+    void run() {
+        server.reset();
+        scheduler.setEnabled(true);
+        try {
+            CommandPrompterConfig config = StubPlugin.defaults(CommandPrompterConfig.class);
+            config.promptTimeout = settings.timeoutSeconds;
+            CommandPrompter plugin = StubPlugin.create(server, config, StubPlugin.defaults(PromptConfig.class));
+            commandListener = new VanillaListener(plugin.getPromptManager());
+            chatListener = new PromptResponseListener(plugin.getPromptManager(), plugin);
+            registry = plugin.getPromptManager().getPromptRegistry();
+            cancelKeyword = config.cancelKeyword;
+
+            List<SimulatedPlayer> players = new ArrayList<>(settings.players);
+            for (int i = 0; i < settings.players; i++)
+                players.add(new SimulatedPlayer(this, "Player" + i, server.world("world" + (i % WORLDS)),
+                        settings.prompts));
+
+            heapBefore = usedHeapAfterGc();
+            heapPeak = heapBefore;
+            long wallStart = System.nanoTime();
+            for (int i = 0; i < settings.ticks; i++)
+                tick(players, true);
+
+            // Let every session end, by answer or timeout, and every scheduled task run.
+            long maxDrainTicks = 20L * settings.timeoutSeconds + START_SPREAD_TICKS;
+            while (drainTicks < maxDrainTicks && (anyInSession(players) || scheduler.getPending() > 0)) {
+                tick(players, false);
+                drainTicks++;
+            }
+            wallNanos = System.nanoTime() - wallStart;
+            leftoverSessions = registry.size();
+            leftoverTasks = scheduler.getPending();
+            heapAfter = usedHeapAfterGc();
+        } finally {
+            scheduler.setEnabled(false);
+            server.reset();
+        }
+    }
+
+    private void tick(List<SimulatedPlayer> players, boolean starting) {
+        long tick = scheduler.getCurrentTick() + 1;
+        long start = System.nanoTime();
+        scheduler.tick();
+        if (starting) {
+            for (SimulatedPlayer player : players)
+                player.mainTick(tick);
+        }
+        mainThread.record(System.nanoTime() - start);
+
+        start = System.nanoTime();
+        for (SimulatedPlayer player : players)
+            player.chatTick(tick);
+        chatThread.record(System.nanoTime() - start);
+
+        if (tick % HEAP_SAMPLE_TICKS == 0)
+            heapPeak = Math.max(heapPeak, memory.getHeapMemoryUsage().getUsed());
+    }
+
+    private static boolean anyInSession(List<SimulatedPlayer> players) {
+        for (SimulatedPlayer player : players)
+            if (player.isInSession()) return true;
+        return false;
+    }
+
+    private long usedHeapAfterGc() {
+        for (int i = 0; i < 3; i++)
+            System.gc();
+        return memory.getHeapMemoryUsage().getUsed();
+    }
+
+    void report(PrintStream out) {
+        int ended = outcomes[Outcome.COMPLETED.ordinal()] + outcomes[Outcome.CANCELLED.ordinal()]
+                + outcomes[Outcome.TIMED_OUT.ordinal()];
+        int ticks = mainThread.count();
+        double simulatedSeconds = ticks / 20.0;
+        double wallSeconds = wallNanos / (double) TimeUnit.SECONDS.toNanos(1);
+
+        out.printf("%s: %d players, %d prompts per command, %d ticks (+%d drain), timeout %ds%n", scenario,
+                settings.players, settings.prompts, settings.ticks, drainTicks, settings.timeoutSeconds);
+        out.printf("  Sessions     started %d, completed %d, cancelled %d, timed out %d, rejected %d%n", started,
+                outcomes[Outcome.COMPLETED.ordinal()], outcomes[Outcome.CANCELLED.ordinal()],
+                outcomes[Outcome.TIMED_OUT.ordinal()], rejected);
+        out.printf("  Dispatched   %d commands, %d not as expected, avg session %.1f ticks%n", dispatched,
+                wrongCommands, ended == 0 ? 0.0 : sessionTicks / (double) ended);
+        out.printf("  Throughput   %.1f sessions/s simulated, %.1f sessions/s wall clock%n",
+                ended / simulatedSeconds, wallSeconds == 0 ? 0.0 : ended / wallSeconds);
+        out.printf("  Main thread  %s, %d ticks over 50ms%n", mainThread.summary(),
+                mainThread.over(TICK_BUDGET_NANOS));
+        out.printf("  Chat thread  %s%n", chatThread.summary());
+        out.printf("  Heap         before %s, peak %s, after %s, growth %s%n", megabytes(heapBefore),
+                megabytes(heapPeak), megabytes(heapAfter), megabytes(heapAfter - heapBefore));
+        out.printf("  Leftovers    %d sessions, %d scheduled tasks%n", leftoverSessions, leftoverTasks);
+    }
+
+    private static String megabytes(long bytes) {
+        return String.format("%.1fMB", bytes / (1024.0 * 1024.0));
+    }
+
+    int thinkTicks() {
+        return 10 + random.nextInt(31);
+    }
+
+    int cooldownTicks() {
+        return 20 + random.nextInt(81);
+    }
+
+    void sessionStarted() {
+        started++;
+    }
+
+    void commandRejected() {
+        rejected++;
+    }
+
+    void sessionEnded(Outcome outcome, long ticks) {
+        outcomes[outcome.ordinal()]++;
+        sessionTicks += ticks;
+    }
+
+    void commandDispatched(boolean asExpected) {
+        dispatched++;
+        if (!asExpected) wrongCommands++;
+    }
+
+    StubServer getServer() {
+        return server;
+    }
+
+    Random getRandom() {
+        return random;
+    }
+
+    Scenario getScenario() {
+        return scenario;
+    }
+
+    int getPrompts() {
+        return settings.prompts;
+    }
+
+    String getCancelKeyword() {
+        return cancelKeyword;
+    }
+
+    VanillaListener getCommandListener() {
+        return commandListener;
+    }
+
+    PromptResponseListener getChatListener() {
+        return chatListener;
+    }
+
+    PromptRegistry getRegistry() {
+        return registry;
+    }
+}
@@ -0,0 +1,135 @@
+package com.cyr1en.commandprompter.load;
+
+import org.bukkit.World;
+import org.bukkit.entity.Player;
+import org.bukkit.event.player.AsyncPlayerChatEvent;
+import org.bukkit.event.player.PlayerCommandPreprocessEvent;
+
+import java.util.Collections;
+import java.util.Set;
+
+/**
+ * A scripted player that runs a command with prompts, then answers, cancels or ignores them.
+ *
+ * <p>The player only answers a prompt after it was sent to them, and waits a random think
+ * time before each answer, and between two commands.</p>
+ */
+final class SimulatedPlayer {
+
+    private static final Set<Player> NO_RECIPIENTS = Collections.emptySet();
+
+    enum Plan {
+        ANSWER,
+        CANCEL,
+        IGNORE
+    }
+
+    private final ScenarioRun run;
+    private final Player player;
+    private final String command;
+    private final String expected;
+
+    private Plan plan;
+    private boolean inSession;
+    private boolean cancelSent;
+    private long nextActionTick;
+    private long sessionStart;
+    private int promptsReceived;
+    private int answered;
+
+    SimulatedPlayer(ScenarioRun run, String name, World world, int prompts) {
+        this.run = run;
+        this.player = run.getServer().join(name, world, stub -> stub
+                .answer("sendMessage", this::onMessage)
+                .answer("chat", this::onChat));
+
+        StringBuilder command = new StringBuilder("/give ").append(name).append(" diamond");
+        StringBuilder expected = new StringBuilder(command);
+        for (int i = 1; i <= prompts; i++) {
+            command.append(" <Enter argument ").append(i).append('>');
+            expected.append(" answer").append(i);
+        }
+        this.command = command.toString();
+        this.expected = expected.toString();
+        this.nextActionTick = 1 + run.getRandom().nextInt(ScenarioRun.START_SPREAD_TICKS);
+    }
+
+    /**
+     * Main thread part of a tick: run the command if it's time to start a new session.
+     */
+    void mainTick(long tick) {
+        if (inSession || tick < nextActionTick) return;
+        plan = run.getScenario().pick(run.getRandom());
+        cancelSent = false;
+        promptsReceived = 0;
+        answered = 0;
+
+        PlayerCommandPreprocessEvent event = new PlayerCommandPreprocessEvent(player, command, NO_RECIPIENTS);
+        run.getCommandListener().onCommand(event);
+        if (run.getRegistry().hasSession(player)) {
+            inSession = true;
+            sessionStart = tick;
+            nextActionTick = tick + run.thinkTicks();
+            run.sessionStarted();
+        } else {
+            run.commandRejected();
+            nextActionTick = tick + run.cooldownTicks();
+        }
+    }
+
+    /**
+     * Chat thread part of a tick: answer or cancel a prompt that was received.
+     */
+    void chatTick(long tick) {
+        if (!inSession) return;
+        if (!run.getRegistry().hasSession(player)) {
+            finish(tick);
+            return;
+        }
+        if (plan == Plan.IGNORE || promptsReceived == 0 || tick < nextActionTick) return;
+
+        promptsReceived--;
+        String message;
+        if (plan == Plan.CANCEL) {
+            message = run.getCancelKeyword();
+            cancelSent = true;
+        } else {
+            message = "answer" + (++answered);
+        }
+        run.getChatListener().onChat(new AsyncPlayerChatEvent(true, player, message, NO_RECIPIENTS));
+        nextActionTick = tick + run.thinkTicks();
+    }
+
+    boolean isInSession() {
+        return inSession;
+    }
+
+    private void finish(long tick) {
+        inSession = false;
+        nextActionTick = tick + run.cooldownTicks();
+        ScenarioRun.Outcome outcome;
+        if (cancelSent)
+            outcome = ScenarioRun.Outcome.CANCELLED;
+        else if (plan == Plan.ANSWER && answered == run.getPrompts())
+            outcome = ScenarioRun.Outcome.COMPLETED;
+        else
+            outcome = ScenarioRun.Outcome.TIMED_OUT;
+        run.sessionEnded(outcome, tick - sessionStart);
+    }
+
+    private Object onMessage(Object[] args) {
+        // Chat prompts are sent as one multi-line message, everything else is a single line.
+        if (args.length == 1 && args[0] instanceof String[])
+            promptsReceived++;
+        return null;
+    }
+
+    private Object onChat(Object[] args) {
+        String message = (String) args[0];
+        if (!message.startsWith("/")) return null;
+        run.commandDispatched(message.equals(expected));
+        // The server would run the command through the command listener as well.
+        run.getCommandListener().onCommand(new PlayerCommandPreprocessEvent(player, message, NO_RECIPIENTS));
+        return null;
+    }
+}
@@ -0,0 +1,62 @@
+package com.cyr1en.commandprompter.load;
+
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Time spent per simulated tick.
+ */
+final class TickStats {
+
+    private long[] samples;
+    private int size;
+
+    TickStats(int expectedTicks) {
+        this.samples = new long[Math.max(16, expectedTicks)];
+    }
+
+    void record(long nanos) {
+        if (size == samples.length)
+            samples = Arrays.copyOf(samples, size * 2);
+        samples[size++] = nanos;
+    }
+
+    int count() {
+        return size;
+    }
+
+    /**
+     * @param budgetNanos time a tick may take.
+     * @return number of ticks that took longer.
+     */
+    int over(long budgetNanos) {
+        int over = 0;
+        for (int i = 0; i < size; i++)
+            if (samples[i] > budgetNanos) over++;
+        return over;
+    }
+
+    /**
+     * i.e. {@code avg 0.41ms  p50 0.30ms  p95 1.20ms  p99 2.31ms  max 8.10ms}
+     */
+    String summary() {
+        if (size == 0) return "no ticks";
+        long[] sorted = Arrays.copyOf(samples, size);
+        Arrays.sort(sorted);
+        long total = 0;
+        for (long sample : sorted)
+            total += sample;
+        return String.format("avg %s  p50 %s  p95 %s  p99 %s  max %s", millis(total / size),
+                millis(percentile(sorted, 50)), millis(percentile(sorted, 95)),
+                millis(percentile(sorted, 99)), millis(sorted[size - 1]));
+    }
+
+    private static long percentile(long[] sorted, int percent) {
+        int index = (int) Math.ceil(percent / 100.0 * sorted.length) - 1;
+        return sorted[Math.max(0, Math.min(index, sorted.length - 1))];
+    }
+
+    private static String millis(long nanos) {
+        return String.format("%.2fms", nanos / (double) TimeUnit.MILLISECONDS.toNanos(1));
+    }
+}
@@ -0,0 +1,87 @@
+package com.cyr1en.commandprompter.prompt;
+
+import com.cyr1en.commandprompter.fixture.Stub;
+import com.cyr1en.commandprompter.fixture.StubPlugin;
+import com.cyr1en.commandprompter.fixture.StubServer;
+import org.bukkit.entity.Player;
+import org.bukkit.event.Cancellable;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of checking and parsing a command template with 0 to 8 chat prompts.
+ *
+ * <p>{@link #parse()} builds the whole prompt queue, like a player running the command
+ * would, and unregisters it again so every operation starts from an empty registry.</p>
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PromptParserBenchmark {
+
+    @Param({"0", "1", "2", "4", "8"})
+    public int prompts;
+
+    private PromptParser parser;
+    private PromptRegistry registry;
+    private Player player;
+    private Cancellable cancellable;
+    private String command;
+
+    @Setup
+    public void setup() {
+        StubServer server = StubServer.get();
+        PromptManager manager = StubPlugin.create(server).getPromptManager();
+        parser = manager.getParser();
+        registry = manager.getPromptRegistry();
+        player = server.join("Bench", server.world("world"));
+        cancellable = Stub.of(Cancellable.class).build();
+        command = template(prompts);
+    }
+
+    @TearDown
+    public void tearDown() {
+        StubServer.get().reset();
+    }
+
+    /**
+     * A give command with a number of prompts, or a literal amount if there are none.
+     */
+    static String template(int prompts) {
+        StringBuilder sb = new StringBuilder("give Bench diamond");
+        if (prompts == 0)
+            sb.append(" 64");
+        for (int i = 0; i < prompts; i++)
+            sb.append(" <Enter argument ").append(i + 1).append(">");
+        return sb.toString();
+    }
+
+    @Benchmark
+    public boolean isParsable() {
+        return parser.isParsable(new PromptContext(cancellable, player, command));
+    }
+
+    @Benchmark
+    public int parse() {
+        PromptContext context = new PromptContext(cancellable, player, command);
+        if (!parser.isParsable(context)) return 0;
+        int queueHash = parser.parsePrompts(context);
+        registry.unregister(player);
+        return queueHash;
+    }
+}
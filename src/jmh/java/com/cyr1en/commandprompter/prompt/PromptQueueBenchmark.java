@@ -0,0 +1,56 @@
+package com.cyr1en.commandprompter.prompt;
+
+import com.cyr1en.commandprompter.fixture.StubPlugin;
+import com.cyr1en.commandprompter.fixture.StubServer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of rendering the completed command once every prompt was answered.
+ *
+ * <p>{@link PromptQueue#getCompleteCommand()} consumes the answers, so each operation
+ * fills a new queue first. That is what happens on the server as well.</p>
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PromptQueueBenchmark {
+
+    @Param({"1", "2", "4", "8"})
+    public int prompts;
+
+    private String command;
+    private String escapedRegex;
+    private String[] answers;
+
+    @Setup
+    public void setup() {
+        escapedRegex = StubPlugin.create(StubServer.get()).getPromptManager().getParser().getEscapedRegex();
+        command = PromptParserBenchmark.template(prompts);
+        answers = new String[prompts];
+        for (int i = 0; i < prompts; i++)
+            answers[i] = "answer" + (i + 1);
+    }
+
+    @Benchmark
+    public String completeCommand() {
+        PromptQueue queue = new PromptQueue(command, false, false, escapedRegex);
+        for (String answer : answers)
+            queue.addCompleted(answer);
+        return queue.getCompleteCommand();
+    }
+}
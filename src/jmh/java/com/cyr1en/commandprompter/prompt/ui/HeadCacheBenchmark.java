@@ -0,0 +1,89 @@
+package com.cyr1en.commandprompter.prompt.ui;
+
+import com.cyr1en.commandprompter.config.CommandPrompterConfig;
+import com.cyr1en.commandprompter.config.PromptConfig;
+import com.cyr1en.commandprompter.fixture.StubPlugin;
+import com.cyr1en.commandprompter.fixture.StubServer;
+import org.bukkit.World;
+import org.bukkit.entity.Player;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of getting the pages of heads for the player UI, for all players and per world.
+ *
+ * <p>The players are spread over {@link #WORLDS} worlds. The cache is sized to hold
+ * every head, so the numbers are about the rosters and pages and not about evictions.
+ * {@link #pagesAfterChange()} hides and shows a player first, which is what a join or
+ * quit does, so the pages have to be rebuilt.</p>
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class HeadCacheBenchmark {
+
+    private static final int WORLDS = 4;
+    private static final int PAGE_SIZE = 45;
+
+    @Param({"10", "100", "1000"})
+    public int players;
+
+    @Param({"false", "true"})
+    public boolean sorted;
+
+    private HeadCache headCache;
+    private World world;
+    private Player player;
+
+    @Setup
+    public void setup() {
+        StubServer server = StubServer.get();
+        for (int i = 0; i < players; i++)
+            player = server.join("Player" + i, server.world("world" + (i % WORLDS)));
+        world = server.world("world0");
+
+        PromptConfig promptConfig = StubPlugin.defaults(PromptConfig.class);
+        promptConfig.sorted = sorted;
+        promptConfig.cacheSize = Math.max(promptConfig.cacheSize, players);
+        headCache = new HeadCache(StubPlugin.create(server, StubPlugin.defaults(CommandPrompterConfig.class),
+                promptConfig));
+    }
+
+    @TearDown
+    public void tearDown() {
+        headCache.shutdown();
+        StubServer.get().reset();
+    }
+
+    @Benchmark
+    public HeadPages pages() {
+        return headCache.getPages(PAGE_SIZE);
+    }
+
+    @Benchmark
+    public HeadPages pagesForWorld() {
+        return headCache.getPagesFor(world, PAGE_SIZE);
+    }
+
+    @Benchmark
+    public HeadPages pagesAfterChange() {
+        headCache.hide(player);
+        headCache.show(player);
+        return headCache.getPages(PAGE_SIZE);
+    }
+}
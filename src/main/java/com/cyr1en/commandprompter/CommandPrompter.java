@@ -27,33 +27,62 @@ package com.cyr1en.commandprompter;
 import com.cyr1en.commandprompter.command.CommodoreRegistry;
 import com.cyr1en.commandprompter.commands.Cancel;
 import com.cyr1en.commandprompter.commands.Reload;
+import com.cyr1en.commandprompter.commands.Stats;
 import com.cyr1en.commandprompter.config.CommandPrompterConfig;
+import com.cyr1en.commandprompter.config.ConfigWatcher;
 import com.cyr1en.commandprompter.config.ConfigurationManager;
 import com.cyr1en.commandprompter.config.PromptConfig;
 import com.cyr1en.commandprompter.hook.HookContainer;
 import com.cyr1en.commandprompter.listener.CommandListener;
+import com.cyr1en.commandprompter.listener.EventRegistrar;
 import com.cyr1en.commandprompter.listener.ModifiedListener;
+import com.cyr1en.commandprompter.listener.PacketCommandListener;
 import com.cyr1en.commandprompter.listener.VanillaListener;
+import com.cyr1en.commandprompter.metrics.MetricsRegistry;
 import com.cyr1en.commandprompter.prompt.PromptManager;
 import com.cyr1en.commandprompter.prompt.PromptResponseListener;
+import com.cyr1en.commandprompter.prompt.ui.ChatPromptCache;
 import com.cyr1en.commandprompter.prompt.ui.HeadCache;
+import com.cyr1en.commandprompter.prompt.ui.ItemTemplates;
+import com.cyr1en.commandprompter.prompt.ui.SignMenuFactory;
 import com.cyr1en.commandprompter.unsafe.CommandMapHacker;
 import com.cyr1en.commandprompter.unsafe.ModifiedCommandMap;
 import com.cyr1en.commandprompter.unsafe.PvtFieldMutator;
+import com.cyr1en.commandprompter.util.StartupGraph;
+import com.github.stefvanschie.inventoryframework.gui.GuiItem;
+import com.github.stefvanschie.inventoryframework.gui.type.ChestGui;
+import com.github.stefvanschie.inventoryframework.pane.OutlinePane;
+import com.github.stefvanschie.inventoryframework.pane.StaticPane;
 import com.cyr1en.kiso.mc.I18N;
 import com.cyr1en.kiso.mc.UpdateChecker;
 import com.cyr1en.kiso.mc.command.CommandManager;
 import com.cyr1en.kiso.utils.SRegex;
+import net.wesjd.anvilgui.AnvilGUI;
 import org.bstats.bukkit.Metrics;
 import org.bukkit.Bukkit;
 import org.bukkit.command.PluginCommand;
 import org.bukkit.event.HandlerList;
+import org.bukkit.plugin.PluginDescriptionFile;
 import org.bukkit.plugin.java.JavaPlugin;
-
+import org.bukkit.plugin.java.JavaPluginLoader;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
 
 public class CommandPrompter extends JavaPlugin {
 
+    private static final int STARTUP_THREADS = Math.max(1, Math.min(3, Runtime.getRuntime().availableProcessors() - 1));
+    private static final String STARTUP_REPORT = "startup-timings.log";
+    private static final int STARTUP_REPORTS_KEPT = 10;
+
     private static CommandPrompter instance;
 
     private ConfigurationManager configManager;
@@ -69,48 +98,166 @@ public class CommandPrompter extends JavaPlugin {
     private PromptManager promptManager;
     private PluginMessenger messenger;
     private HeadCache headCache;
+    private SignMenuFactory signMenuFactory;
+    private ItemTemplates itemTemplates;
+    private ChatPromptCache chatPromptCache;
+    private ConfigWatcher configWatcher;
+    private MetricsRegistry metrics;
+
+    public CommandPrompter() {
+        super();
+    }
+
+    /**
+     * Create the plugin outside of a server, through the initialization constructor of {@link JavaPlugin}.
+     * Only meant for tests and benchmarks.
+     *
+     * <p>{@link #onEnable()} is never called. Only the parts that prompts need are set up from the
+     * given configs: metrics, logger, messages, messenger, hooks (none hooked), the chat prompt cache
+     * and the prompt manager.</p>
+     */
+    protected CommandPrompter(JavaPluginLoader loader, PluginDescriptionFile description, File dataFolder, File file,
+                              CommandPrompterConfig config, PromptConfig promptConfig) {
+        super(loader, description, dataFolder, file);
+        instance = this;
+        this.metrics = new MetricsRegistry();
+        this.config = config;
+        this.promptConfig = promptConfig;
+        this.logger = new PluginLogger(this, "CommandPrompter");
+        this.i18n = new I18N(this, "CommandPrompter");
+        this.messenger = new PluginMessenger(config.promptPrefix);
+        this.hookContainer = new HookContainer(this);
+        this.chatPromptCache = new ChatPromptCache(config, promptConfig);
+        this.promptManager = new PromptManager(this);
+    }
 
     @Override
     public void onEnable() {
         //new Metrics(this, 5359);
-        setupConfig();
-        logger = new PluginLogger(this, "CommandPrompter");
-        i18n = new I18N(this, "CommandPrompter");
-        setupUpdater();
-        setupCommands();
-        messenger = new PluginMessenger(config.promptPrefix);
         instance = this;
-        Bukkit.getPluginManager().registerEvents(hookContainer = new HookContainer(this), this);
-        initPromptSystem();
+        metrics = new MetricsRegistry();
+        StartupGraph startup = new StartupGraph(STARTUP_THREADS);
+        try {
+            StartupGraph.Stage configStage = startup.async("config", this::setupConfig);
+            StartupGraph.Stage i18nStage = startup.async("i18n", () -> i18n = new I18N(this, "CommandPrompter"));
+            startup.async("class-warm-up", () -> {
+                if (config.preloadPrompts) warmUpClasses();
+            }, configStage);
+            StartupGraph.Stage loggerStage = startup.sync("logger",
+                    () -> logger = new PluginLogger(this, "CommandPrompter"), configStage);
+            startup.sync("updater", this::setupUpdater, loggerStage);
+            startup.sync("commands", this::setupCommands, i18nStage, loggerStage);
+            startup.sync("messenger", () -> messenger = new PluginMessenger(config.promptPrefix), configStage);
+            startup.sync("hooks", () -> EventRegistrar.register(hookContainer = new HookContainer(this), this),
+                    loggerStage);
+            startup.sync("prompt-system", this::initPromptSystem, loggerStage, i18nStage);
+            startup.sync("config-watcher", this::setupConfigWatcher, loggerStage);
+        } catch (RuntimeException | Error e) {
+            startup.abort();
+            throw e;
+        }
+        long total = startup.finish();
+        reportStartup(startup, total);
+    }
+
+    /**
+     * Load the classes of the prompt UIs ahead of time, so the first prompt doesn't have to.
+     * Classes are only loaded here, not initialized.
+     */
+    private void warmUpClasses() {
+        List<String> classes = new ArrayList<>(Arrays.asList(
+                ChestGui.class.getName(),
+                GuiItem.class.getName(),
+                OutlinePane.class.getName(),
+                StaticPane.class.getName(),
+                AnvilGUI.class.getName(),
+                AnvilGUI.Builder.class.getName(),
+                "com.cyr1en.commandprompter.prompt.prompts.AnvilPrompt",
+                "com.cyr1en.commandprompter.prompt.prompts.PlayerUIPrompt",
+                "com.cyr1en.commandprompter.prompt.ui.inventory.LazyPaginatedPane",
+                "com.cyr1en.commandprompter.prompt.ui.inventory.ControlPane"));
+        if (isSignPromptAvailable()) {
+            classes.add("com.cyr1en.commandprompter.prompt.ui.SignMenuFactory");
+            classes.add("com.cyr1en.commandprompter.prompt.prompts.SignPrompt");
+        }
+        for (String name : classes) {
+            try {
+                Class.forName(name, false, getClassLoader());
+            } catch (ClassNotFoundException | LinkageError e) {
+                getLogger().fine("Could not warm up " + name + ": " + e);
+            }
+        }
+    }
+
+    private void reportStartup(StartupGraph startup, long total) {
+        logger.info("Enabled in %dms (%s)", TimeUnit.NANOSECONDS.toMillis(total), startup.summary());
+        try {
+            startup.writeReport(getDataFolder().toPath().resolve(STARTUP_REPORT), getDescription().getVersion(), total,
+                    STARTUP_REPORTS_KEPT);
+        } catch (IOException e) {
+            logger.warn("Could not write startup report: " + e.getMessage());
+        }
     }
 
     @Override
     public void onDisable() {
-        promptManager.clearPromptRegistry();
-        getPluginLogger().ansiUninstall();
+        if (Objects.nonNull(configWatcher))
+            configWatcher.stop();
+        if (Objects.nonNull(promptManager))
+            promptManager.clearPromptRegistry();
+        if (Objects.nonNull(headCache))
+            headCache.shutdown();
+        if (Objects.nonNull(signMenuFactory))
+            signMenuFactory.unregister();
+        if (commandListener instanceof PacketCommandListener)
+            ((PacketCommandListener) commandListener).unregister();
+        if (Objects.nonNull(logger))
+            logger.ansiUninstall();
         if (Objects.nonNull(updateChecker) && !updateChecker.isDisabled())
             HandlerList.unregisterAll(updateChecker);
     }
 
     private void initPromptSystem() {
+        chatPromptCache = new ChatPromptCache(config, promptConfig);
+        if (!ChatPromptCache.isSpigotChatAvailable())
+            logger.debug("ChatAPI not available, can't send clickable cancel");
         promptManager = new PromptManager(this);
         initCommandListener();
-        Bukkit.getPluginManager().registerEvents(new PromptResponseListener(promptManager, this), this);
+        EventRegistrar.register(new PromptResponseListener(promptManager, this), this);
         PromptResponseListener.setPriority(this);
-        headCache = new HeadCache(this);
+        if (config.preloadPrompts) {
+            getItemTemplates();
+            getHeadCache();
+            if (isSignPromptAvailable())
+                getSignMenuFactory();
+        }
+    }
+
+    public boolean isSignPromptAvailable() {
+        return getServer().getPluginManager().getPlugin("ProtocolLib") != null;
     }
 
     /**
      * Function to initialize the command listener that this plugin will use
      * <p>
-     * If unsafe is enabled in the config, this plugin will use the modified
-     * command map. Otherwise, it will just use the vanilla listener.
+     * If packet interception is enabled in the config and ProtocolLib is present, this
+     * plugin will read commands from packets. If unsafe is enabled in the config, this
+     * plugin will use the modified command map. Otherwise, it will just use the vanilla listener.
      */
     private void initCommandListener() {
+        if (config.packetInterception) {
+            if (getServer().getPluginManager().getPlugin("ProtocolLib") != null) {
+                PacketCommandListener packetListener = new PacketCommandListener(promptManager);
+                packetListener.register();
+                commandListener = packetListener;
+                return;
+            }
+            logger.warn("Packet-Interception requires ProtocolLib. Falling back to the command listener.");
+        }
         boolean useUnsafe = config.enableUnsafe;
         if (!useUnsafe) {
             commandListener = new VanillaListener(promptManager);
-            Bukkit.getPluginManager().registerEvents(commandListener, this);
+            EventRegistrar.register(commandListener, this);
             return;
         }
         long delay = config.modificationDelay;
@@ -130,7 +277,7 @@ public class CommandPrompter extends JavaPlugin {
             int sHash = PvtFieldMutator.forField("commandMap").in(getServer()).getHashCode();
             int pHash = PvtFieldMutator.forField("commandMap").in(getServer().getPluginManager()).getHashCode();
             logger.warn("sHash: " + sHash + " | pHash: " + pHash);
-            Bukkit.getPluginManager().registerEvents(commandListener, this);
+            EventRegistrar.register(commandListener, this);
         } catch (NoSuchFieldException | IllegalAccessException e) {
             e.printStackTrace();
         }
@@ -142,10 +289,38 @@ public class CommandPrompter extends JavaPlugin {
         promptConfig = configManager.getConfig(PromptConfig.class);
     }
 
+    private void setupConfigWatcher() {
+        if (Objects.nonNull(configWatcher)) {
+            configWatcher.stop();
+            configWatcher = null;
+        }
+        if (!config.watchConfig) return;
+        List<Path> files = Arrays.asList(
+                getDataFolder().toPath().resolve(configManager.getPath(CommandPrompterConfig.class)),
+                getDataFolder().toPath().resolve(configManager.getPath(PromptConfig.class)));
+        configWatcher = new ConfigWatcher(this, files, this::reloadChanged);
+        try {
+            configWatcher.start();
+        } catch (IOException e) {
+            logger.err("Could not watch config files: " + e.getMessage());
+            configWatcher = null;
+        }
+    }
+
+    /**
+     * Let the config watcher know about the current contents of the config files, so the nodes
+     * a reload just wrote back don't trigger another reload.
+     */
+    private void snapshotConfigFiles() {
+        if (Objects.nonNull(configWatcher))
+            configWatcher.snapshot();
+    }
+
     private void setupCommands() {
         setupCommandManager();
         commandManager.registerCommand(Reload.class);
         commandManager.registerCommand(Cancel.class);
+        commandManager.registerCommand(Stats.class);
         PluginCommand command = getCommand("commandprompter");
         Objects.requireNonNull(command).setExecutor(commandManager);
         commandManager.registerTabCompleter(command);
@@ -180,7 +355,7 @@ public class CommandPrompter extends JavaPlugin {
             else
                 logger.info("No update was found.");
         });
-        Bukkit.getPluginManager().registerEvents(updateChecker, this);
+        EventRegistrar.register(updateChecker, this);
     }
 
     public I18N getI18N() {
@@ -207,25 +382,147 @@ public class CommandPrompter extends JavaPlugin {
         return logger;
     }
 
+    /**
+     * Get the head cache, creating it on first use.
+     *
+     * <p>Only player UI prompts need it, so servers that never use them don't pay for it.
+     * Must be called from the main thread.</p>
+     *
+     * @return the head cache.
+     */
     public HeadCache getHeadCache() {
+        if (headCache == null) {
+            logger.debug("Creating head cache");
+            headCache = new HeadCache(this);
+        }
+        return headCache;
+    }
+
+    /**
+     * Get the head cache without creating it.
+     *
+     * @return the head cache, or null if no player UI prompt was used yet.
+     */
+    public HeadCache peekHeadCache() {
         return headCache;
     }
 
+    /**
+     * Get the sign input service, creating and registering it on first use.
+     *
+     * <p>Must be called from the main thread, and only if {@link #isSignPromptAvailable()}.</p>
+     *
+     * @return the sign input service.
+     */
+    public SignMenuFactory getSignMenuFactory() {
+        if (signMenuFactory == null) {
+            logger.debug("Creating sign input service");
+            signMenuFactory = new SignMenuFactory(this);
+            signMenuFactory.register();
+        }
+        return signMenuFactory;
+    }
+
+    /**
+     * Get the item templates of the anvil and player UI prompts, building them on first use.
+     *
+     * <p>Must be called from the main thread.</p>
+     *
+     * @return the item templates.
+     */
+    public ItemTemplates getItemTemplates() {
+        if (itemTemplates == null)
+            itemTemplates = new ItemTemplates(promptConfig);
+        return itemTemplates;
+    }
+
+    public ChatPromptCache getChatPromptCache() {
+        return chatPromptCache;
+    }
+
     public void reload(boolean clean) {
+        boolean watchConfig = config.watchConfig;
         config = configManager.reload(CommandPrompterConfig.class);
         promptConfig = configManager.reload(PromptConfig.class);
+        snapshotConfigFiles();
+        itemTemplates = null;
+        chatPromptCache = new ChatPromptCache(config, promptConfig);
         messenger.setPrefix(config.promptPrefix);
         logger = new PluginLogger(this, "CommandPrompter");
         i18n = new I18N(this, "CommandPrompter");
         commandManager.getMessenger().setPrefix(config.promptPrefix);
         promptManager.getParser().initRegex();
+        hookContainer.invalidateCaches();
         PromptResponseListener.setPriority(this);
         setupUpdater();
-        headCache.setMaximumSize(promptConfig.cacheSize);
+        if (Objects.nonNull(headCache))
+            headCache.reload();
+        if (watchConfig != config.watchConfig)
+            setupConfigWatcher();
         if (clean)
             promptManager.clearPromptRegistry();
     }
 
+    /**
+     * Reload the configs and only rebuild what depends on the nodes that changed.
+     *
+     * <p>
+     * Called by the {@link ConfigWatcher} when a config file is saved.
+     */
+    public void reloadChanged() {
+        CommandPrompterConfig oldConfig = config;
+        PromptConfig oldPromptConfig = promptConfig;
+        config = configManager.reload(CommandPrompterConfig.class);
+        promptConfig = configManager.reload(PromptConfig.class);
+        snapshotConfigFiles();
+
+        Set<String> changed = new LinkedHashSet<>();
+        changed.addAll(configManager.diff(CommandPrompterConfig.class, oldConfig, config));
+        changed.addAll(configManager.diff(PromptConfig.class, oldPromptConfig, promptConfig));
+        if (changed.isEmpty()) return;
+
+        if (changed.contains("Debug-Mode") || changed.contains("Fancy-Logger"))
+            logger = new PluginLogger(this, "CommandPrompter");
+        if (changed.contains("Prompt-Prefix")) {
+            messenger.setPrefix(config.promptPrefix);
+            commandManager.getMessenger().setPrefix(config.promptPrefix);
+        }
+        if (changedAny(changed, "Prompt-Prefix", "TextPrompt.Clickable-Cancel", "TextPrompt.Cancel-Message",
+                "TextPrompt.Cancel-Hover-Message"))
+            chatPromptCache = new ChatPromptCache(config, promptConfig);
+        if (changed.contains("Argument-Regex"))
+            promptManager.getParser().initRegex();
+        if (changed.contains("TextPrompt.Response-Listener-Priority"))
+            PromptResponseListener.setPriority(this);
+        if (changed.contains("Update-Checker")) {
+            if (Objects.nonNull(updateChecker))
+                HandlerList.unregisterAll(updateChecker);
+            setupUpdater();
+        }
+        if (changedAny(changed, "PlayerUI.Previous.", "PlayerUI.Next.", "PlayerUI.Cancel.", "PlayerUI.Search.",
+                "AnvilGUI.Item", "AnvilGUI.Enchanted"))
+            itemTemplates = null;
+        if (changedAny(changed, "PlayerUI.Skull-Name-Format", "PlayerUI.Cache-Size", "PlayerUI.Sorted") &&
+                Objects.nonNull(headCache))
+            headCache.reload();
+        if (changed.contains("Watch-Config"))
+            setupConfigWatcher();
+        if (changedAny(changed, "Enable-Unsafe", "Modification-Delay", "Packet-Interception"))
+            logger.warn("Changes to Enable-Unsafe, Modification-Delay or Packet-Interception need a restart.");
+        logger.info("Applied config changes: " + String.join(", ", changed));
+    }
+
+    /**
+     * Checks if any changed node starts with one of the given prefixes.
+     */
+    private static boolean changedAny(Set<String> changed, String... prefixes) {
+        for (String node : changed) {
+            for (String prefix : prefixes)
+                if (node.startsWith(prefix)) return true;
+        }
+        return false;
+    }
+
     public static CommandPrompter getInstance() {
         return instance;
     }
@@ -241,5 +538,9 @@ public class CommandPrompter extends JavaPlugin {
     public UpdateChecker getUpdateChecker() {
         return updateChecker;
     }
+
+    public MetricsRegistry getMetrics() {
+        return metrics;
+    }
 }
 
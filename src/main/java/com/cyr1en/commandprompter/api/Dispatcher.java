@@ -26,6 +26,7 @@ package com.cyr1en.commandprompter.api;
 
 import com.cyr1en.commandprompter.CommandPrompter;
 import com.cyr1en.commandprompter.PluginLogger;
+import com.cyr1en.commandprompter.metrics.MetricsRegistry;
 import org.bukkit.Bukkit;
 import org.bukkit.command.CommandSender;
 import org.bukkit.entity.Player;
@@ -55,7 +56,9 @@ public class Dispatcher {
         final String checked = command.codePointAt(0) == 0x2F ? command : "/" + command;
         new BukkitRunnable() {
             public void run() {
+                long start = System.nanoTime();
                 sender.chat(checked);
+                recordDispatch(start);
             }
         }.runTask(plugin);
     }
@@ -63,7 +66,9 @@ public class Dispatcher {
     public static void dispatchNative(CommandSender sender, String command) {
         final String checked = command.codePointAt(0) == 0x2F ?
                 command.replace("/", "") : command;
+        long start = System.nanoTime();
         Bukkit.dispatchCommand(sender, checked);
+        recordDispatch(start);
     }
 
     /**
@@ -72,7 +77,9 @@ public class Dispatcher {
      * @param command command that would be dispatched.
      */
     public static void dispatchOP(String command) {
+        long start = System.nanoTime();
         Bukkit.dispatchCommand(Bukkit.getConsoleSender(), command);
+        recordDispatch(start);
     }
 
 
@@ -104,6 +111,12 @@ public class Dispatcher {
         dispatchCommand(plugin, (Player) attachment.getPermissible(), command);
     }
 
+    private static void recordDispatch(long start) {
+        CommandPrompter commandPrompter = CommandPrompter.getInstance();
+        if (commandPrompter == null || commandPrompter.getMetrics() == null) return;
+        commandPrompter.getMetrics().record(MetricsRegistry.Latency.DISPATCH, System.nanoTime() - start);
+    }
+
 
 
 }
@@ -0,0 +1,87 @@
+package com.cyr1en.commandprompter.commands;
+
+import com.cyr1en.commandprompter.CommandPrompter;
+import com.cyr1en.commandprompter.metrics.LatencyHistogram;
+import com.cyr1en.commandprompter.metrics.MetricsRegistry;
+import com.cyr1en.kiso.mc.command.AbstractCommand;
+import com.cyr1en.kiso.mc.command.CommandMessenger;
+import org.bukkit.command.CommandSender;
+import org.bukkit.plugin.java.JavaPlugin;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Shows the hot path metrics of the plugin. {@code /commandprompter stats reset} starts them over.
+ */
+public class Stats extends AbstractCommand {
+
+    private final CommandPrompter commandPrompter;
+
+    public Stats(JavaPlugin plugin, CommandMessenger messenger) {
+        super(plugin, messenger);
+        commandPrompter = (CommandPrompter) plugin;
+        this.commandName = "stats";
+        this.alias = new String[]{"st"};
+        this.permission = "commandprompter.stats";
+    }
+
+    @Override
+    public void doCommand(CommandSender sender, String[] args) {
+        MetricsRegistry metrics = commandPrompter.getMetrics();
+        for (String arg : args) {
+            if (arg.equalsIgnoreCase("reset")) {
+                metrics.reset();
+                send(sender, "StatsReset");
+                return;
+            }
+        }
+
+        send(sender, "StatsHeader", formatUptime(System.currentTimeMillis() - metrics.getSince()));
+        send(sender, "StatsCommands",
+                metrics.get(MetricsRegistry.Counter.COMMANDS_SCANNED),
+                metrics.get(MetricsRegistry.Counter.COMMANDS_REJECTED));
+        send(sender, "StatsSessions",
+                metrics.get(MetricsRegistry.Counter.SESSIONS_STARTED),
+                metrics.get(MetricsRegistry.Counter.SESSIONS_COMPLETED),
+                metrics.get(MetricsRegistry.Counter.SESSIONS_CANCELLED),
+                metrics.get(MetricsRegistry.Counter.SESSIONS_TIMED_OUT));
+        send(sender, "StatsParse", formatHistogram(metrics.get(MetricsRegistry.Latency.PARSE)));
+        send(sender, "StatsDispatch", formatHistogram(metrics.get(MetricsRegistry.Latency.DISPATCH)));
+        for (Map.Entry<String, LatencyHistogram> entry : metrics.getAnswerTimes().entrySet())
+            send(sender, "StatsAnswer", entry.getKey(), formatHistogram(entry.getValue()));
+        send(sender, "StatsHeadCache",
+                metrics.get(MetricsRegistry.Counter.HEAD_CACHE_HITS),
+                metrics.get(MetricsRegistry.Counter.HEAD_CACHE_MISSES),
+                formatHistogram(metrics.get(MetricsRegistry.Latency.HEAD_LOAD)));
+    }
+
+    private void send(CommandSender sender, String key, Object... args) {
+        this.messenger.sendMessage(sender, commandPrompter.getI18N().getFormattedProperty(key, args));
+    }
+
+    private String formatHistogram(LatencyHistogram histogram) {
+        long count = histogram.getCount();
+        if (count == 0) return commandPrompter.getI18N().getProperty("StatsNone");
+        return commandPrompter.getI18N().getFormattedProperty("StatsHistogram", count,
+                formatNanos(histogram.getMean()), formatNanos(histogram.getPercentile(50)),
+                formatNanos(histogram.getPercentile(99)), formatNanos(histogram.getMax()));
+    }
+
+    private String formatNanos(long nanos) {
+        if (nanos < TimeUnit.MILLISECONDS.toNanos(1))
+            return String.format("%.1fµs", nanos / 1_000.0);
+        if (nanos < TimeUnit.SECONDS.toNanos(1))
+            return String.format("%.2fms", nanos / 1_000_000.0);
+        return String.format("%.2fs", nanos / 1_000_000_000.0);
+    }
+
+    private String formatUptime(long millis) {
+        long seconds = TimeUnit.MILLISECONDS.toSeconds(millis);
+        long hours = seconds / 3600;
+        long minutes = seconds % 3600 / 60;
+        if (hours > 0) return String.format("%dh %dm", hours, minutes);
+        if (minutes > 0) return String.format("%dm %ds", minutes, seconds % 60);
+        return seconds + "s";
+    }
+}
@@ -113,6 +113,21 @@ public class CommandPrompterConfig {
         public
         int modificationDelay;
 
+        @ConfigNode
+        @NodeName("Packet-Interception")
+        @NodeDefault("false")
+        @NodeComment({
+                "Catch commands from packets",
+                "instead. Requires ProtocolLib.", "",
+                "Only commands with a prompt",
+                "are handled on the main thread,",
+                "and the command map is left",
+                "untouched. Takes precedence",
+                "over Enable-Unsafe."
+        })
+        public
+        boolean packetInterception;
+
         @ConfigNode
         @NodeName("Show-Complete-Command")
         @NodeDefault("true")
@@ -135,6 +150,34 @@ public class CommandPrompterConfig {
         public
         boolean fancyLogger;
 
+        @ConfigNode
+        @NodeName("Watch-Config")
+        @NodeDefault("false")
+        @NodeComment({
+                "Apply changes to the config",
+                "files as soon as they're saved.",
+                "Only the parts affected by the",
+                "changed nodes are reloaded.", "",
+                "Enable-Unsafe, Modification-Delay",
+                "and Packet-Interception still",
+                "need a restart."
+        })
+        public
+        boolean watchConfig;
+
+        @ConfigNode
+        @NodeName("Preload-Prompts")
+        @NodeDefault("false")
+        @NodeComment({
+                "Set up the player UI, anvil",
+                "and sign prompts on startup.", "",
+                "When false, each of them is",
+                "only set up the first time a",
+                "prompt of its type is used."
+        })
+        public
+        boolean preloadPrompts;
+
         @ConfigNode
         @NodeName("Ignored-Commands")
         @NodeDefault("sampleCommand, sampleCommand2")
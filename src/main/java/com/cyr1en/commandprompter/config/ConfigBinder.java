@@ -0,0 +1,63 @@
+package com.cyr1en.commandprompter.config;
+
+import com.cyr1en.kiso.mc.configuration.base.Config;
+
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Binds a configuration record to its YAML file without reflection.
+ *
+ * <p>
+ * Implementations are generated at compile time for every type annotated with
+ * {@link com.cyr1en.commandprompter.config.annotations.type.Configuration} and named
+ * {@code <Record>Binder}, in the same package as the record.
+ * {@link ConfigurationManager} uses them when present.
+ *
+ * @param <T> type of the configuration record.
+ */
+public interface ConfigBinder<T> {
+
+    /**
+     * @return path of the config file, relative to the plugin's data folder.
+     */
+    String getPath();
+
+    /**
+     * @return header of the config file.
+     */
+    String[] getHeader();
+
+    /**
+     * Set the default of every node that is missing from the config.
+     *
+     * @param config config to write the defaults to.
+     * @return true if at least one node was missing.
+     */
+    boolean writeDefaults(Config config);
+
+    /**
+     * Check that every node in the config has a value of the right type.
+     *
+     * @param config config to validate.
+     * @return a description of each problem found, empty if there's none.
+     */
+    List<String> validate(Config config);
+
+    /**
+     * Create a new record and read all of its nodes from the config.
+     *
+     * @param config config to read from.
+     * @return new configuration record.
+     */
+    T bind(Config config);
+
+    /**
+     * Compare two records node by node.
+     *
+     * @param oldConfig record before a reload.
+     * @param newConfig record after a reload.
+     * @return names of the nodes whose values differ.
+     */
+    Set<String> diff(T oldConfig, T newConfig);
+}
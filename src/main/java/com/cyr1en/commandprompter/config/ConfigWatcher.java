@@ -0,0 +1,151 @@
+package com.cyr1en.commandprompter.config;
+
+import org.bukkit.Bukkit;
+import org.bukkit.plugin.IllegalPluginAccessException;
+import org.bukkit.plugin.Plugin;
+
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Watches config files and calls back on the main thread when they change.
+ *
+ * <p>Editors usually write a file in more than one step, so changes are debounced: the
+ * callback only runs once no watched file has changed for {@link #DEBOUNCE_MILLIS}.</p>
+ *
+ * <p>The contents of the files are kept from the last {@link #snapshot()}. If none of the
+ * files differ from it, the callback doesn't run, so writes of the plugin itself, i.e. nodes
+ * written back by a reload, don't cause another reload.</p>
+ */
+public class ConfigWatcher implements Runnable {
+
+    private static final long DEBOUNCE_MILLIS = 500;
+
+    private final Plugin plugin;
+    private final Set<Path> files;
+    private final Runnable onChange;
+    private final Map<Path, byte[]> snapshots;
+
+    private WatchService watchService;
+    private Thread thread;
+    private volatile boolean closed;
+
+    /**
+     * @param plugin   plugin to schedule the callback with.
+     * @param files    config files to watch.
+     * @param onChange callback, runs on the main thread.
+     */
+    public ConfigWatcher(Plugin plugin, Collection<Path> files, Runnable onChange) {
+        this.plugin = plugin;
+        this.files = new HashSet<>();
+        for (Path file : files)
+            this.files.add(file.toAbsolutePath().normalize());
+        this.onChange = onChange;
+        this.snapshots = new ConcurrentHashMap<>();
+    }
+
+    public void start() throws IOException {
+        if (thread != null) return;
+        snapshot();
+        watchService = FileSystems.getDefault().newWatchService();
+        Set<Path> dirs = new HashSet<>();
+        for (Path file : files)
+            dirs.add(file.getParent());
+        for (Path dir : dirs)
+            dir.register(watchService, StandardWatchEventKinds.ENTRY_CREATE, StandardWatchEventKinds.ENTRY_MODIFY);
+        thread = new Thread(this, "CommandPrompter-ConfigWatcher");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    public void stop() {
+        closed = true;
+        if (thread == null) return;
+        try {
+            watchService.close();
+        } catch (IOException ignore) {
+        }
+        thread.interrupt();
+        thread = null;
+    }
+
+    /**
+     * Remember the current contents of the watched files. Call it after the plugin wrote to them.
+     */
+    public void snapshot() {
+        for (Path file : files)
+            snapshots.put(file, read(file));
+    }
+
+    @Override
+    public void run() {
+        boolean pending = false;
+        while (!closed) {
+            WatchKey key;
+            try {
+                key = pending ? watchService.poll(DEBOUNCE_MILLIS, TimeUnit.MILLISECONDS) : watchService.take();
+            } catch (InterruptedException | ClosedWatchServiceException e) {
+                return;
+            }
+            if (key == null) {
+                pending = false;
+                dispatch();
+                continue;
+            }
+            Path dir = (Path) key.watchable();
+            for (WatchEvent<?> event : key.pollEvents()) {
+                if (event.kind() == StandardWatchEventKinds.OVERFLOW) {
+                    pending = true;
+                    continue;
+                }
+                Path changed = dir.resolve((Path) event.context()).toAbsolutePath().normalize();
+                if (files.contains(changed))
+                    pending = true;
+            }
+            key.reset();
+        }
+    }
+
+    private void dispatch() {
+        if (closed || !plugin.isEnabled() || !changedSinceSnapshot()) return;
+        try {
+            Bukkit.getScheduler().runTask(plugin, onChange);
+        } catch (IllegalPluginAccessException ignore) {
+            // Plugin got disabled in the meantime.
+        }
+    }
+
+    private boolean changedSinceSnapshot() {
+        for (Path file : files) {
+            byte[] snapshot = snapshots.get(file);
+            if (snapshot == null || !Arrays.equals(snapshot, read(file)))
+                return true;
+        }
+        return false;
+    }
+
+    /**
+     * @return contents of the file, or an empty array if it can't be read.
+     */
+    private static byte[] read(Path file) {
+        try {
+            return Files.readAllBytes(file);
+        } catch (IOException e) {
+            return new byte[0];
+        }
+    }
+}
@@ -11,11 +11,19 @@ import com.cyr1en.commandprompter.config.annotations.type.Configuration;
 import com.cyr1en.kiso.mc.configuration.base.Config;
 import com.cyr1en.kiso.mc.configuration.base.ConfigManager;
 
+import java.lang.reflect.Constructor;
 import java.lang.reflect.Field;
 import java.lang.reflect.InvocationTargetException;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.stream.Collectors;
 
 /**
@@ -32,41 +40,59 @@ import java.util.stream.Collectors;
  * record and initializes the defaults for the config file. It then uses reflection
  * again to query those default values in the config file to instantiate the actual
  * record with its respective data.
+ *
+ * <p>
+ * The annotations of each record are only read once and kept in a {@link ConfigMetadata}.
+ * Missing nodes are all set in memory first, then the file is saved once.
+ *
+ * <p>
+ * If a {@link ConfigBinder} was generated for a record at compile time, it is used instead
+ * and none of the above reflection happens.
  */
 public class ConfigurationManager {
 
+    private final CommandPrompter plugin;
     private final ConfigManager configManager;
+    private final Map<Class<?>, ConfigMetadata> metadataCache;
+    private final Map<Class<?>, Optional<ConfigBinder<?>>> binderCache;
 
     public ConfigurationManager(CommandPrompter plugin) {
+        this.plugin = plugin;
         this.configManager = new ConfigManager(plugin);
+        this.metadataCache = new ConcurrentHashMap<>();
+        this.binderCache = new ConcurrentHashMap<>();
     }
 
     public <T> T getConfig(Class<T> configClass) {
         if (configClass.getAnnotation(Configuration.class) == null)
             return null;
 
-        Config config = initConfigFile(configClass);
+        ConfigBinder<T> binder = getBinder(configClass);
+        if (binder != null)
+            return bind(binder);
+
+        ConfigMetadata metadata = getMetadata(configClass);
+        Config config = initConfigFile(metadata);
 
-        initializeConfig(configClass, config);
+        initializeConfig(metadata, config);
 
         try {
-            Object recordConfig = configClass.getDeclaredConstructors()[0].newInstance();
+            Object recordConfig = metadata.constructor.newInstance();
             @SuppressWarnings("unchecked") T out = (T) recordConfig;
-            configClass.getDeclaredField("rawConfig").set(out, config);
-            for (Field declaredField : configClass.getDeclaredFields()) {
-                if (declaredField.getAnnotation(ConfigNode.class) == null) continue;
+            metadata.rawConfigField.set(out, config);
+            for (NodeMetadata node : metadata.nodes) {
                 Object value;
-                NodeName nameAnnotation = declaredField.getAnnotation(NodeName.class);
-                if (declaredField.getType().equals(int.class))
-                    value = config.getInt(nameAnnotation.value());
-                else if (declaredField.getType().equals(boolean.class))
-                    value = config.getBoolean(nameAnnotation.value());
-                else if (declaredField.getType().equals(double.class))
-                    value = config.getDouble(nameAnnotation.value());
-                else if (declaredField.getType().equals(List.class))
-                    value = config.getList(nameAnnotation.value());
-                else value = config.getString(nameAnnotation.value());
-                declaredField.set(out, value);
+                Class<?> type = node.field.getType();
+                if (type.equals(int.class))
+                    value = config.getInt(node.name);
+                else if (type.equals(boolean.class))
+                    value = config.getBoolean(node.name);
+                else if (type.equals(double.class))
+                    value = config.getDouble(node.name);
+                else if (type.equals(List.class))
+                    value = config.getList(node.name);
+                else value = config.getString(node.name);
+                node.field.set(out, value);
             }
 
             return out;
@@ -80,40 +106,113 @@ public class ConfigurationManager {
         return getConfig(configClass);
     }
 
-    private void initializeConfig(Class<?> configClass, Config config) {
-        Field[] fields = configClass.getDeclaredFields();
-        for (Field field : fields)
-            initializeField(field, config);
+    /**
+     * Compare two instances of a configuration record node by node.
+     *
+     * @param configClass class of the configuration record.
+     * @param oldConfig   record before a reload.
+     * @param newConfig   record after a reload.
+     * @return names of the nodes whose values differ.
+     */
+    public <T> Set<String> diff(Class<T> configClass, T oldConfig, T newConfig) {
+        ConfigBinder<T> binder = getBinder(configClass);
+        if (binder != null)
+            return binder.diff(oldConfig, newConfig);
+
+        Set<String> changed = new LinkedHashSet<>();
+        for (NodeMetadata node : getMetadata(configClass).nodes) {
+            try {
+                if (!Objects.equals(node.field.get(oldConfig), node.field.get(newConfig)))
+                    changed.add(node.name);
+            } catch (IllegalAccessException e) {
+                e.printStackTrace();
+            }
+        }
+        return changed;
     }
 
-    private Config initConfigFile(Class<?> configClass) {
-        ConfigPath pathAnnotation = configClass.getAnnotation(ConfigPath.class);
-        String filePath = pathAnnotation == null ? configClass.getSimpleName() : pathAnnotation.value();
+    /**
+     * Get the path of a configuration record's file, relative to the plugin's data folder.
+     *
+     * @param configClass class of the configuration record.
+     * @return path of the config file.
+     */
+    public String getPath(Class<?> configClass) {
+        ConfigBinder<?> binder = getBinder(configClass);
+        return binder != null ? binder.getPath() : getMetadata(configClass).filePath;
+    }
 
-        ConfigHeader headerAnnotation = configClass.getAnnotation(ConfigHeader.class);
-        String[] header = headerAnnotation == null ? new String[] { configClass.getSimpleName(), "Configuration"} :
-                headerAnnotation.value();
-        return configManager.getNewConfig(filePath, header);
+    private <T> T bind(ConfigBinder<T> binder) {
+        Config config = configManager.getNewConfig(binder.getPath(), binder.getHeader());
+        if (binder.writeDefaults(config))
+            config.saveConfig();
+        for (String problem : binder.validate(config))
+            plugin.getLogger().warning(binder.getPath() + ": " + problem);
+        return binder.bind(config);
     }
 
-    private void initializeField(Field field, Config config) {
-        if (field.getAnnotation(ConfigNode.class) == null) return;
+    /**
+     * Get the generated binder for a configuration record.
+     *
+     * @return the binder, or null if none was generated.
+     */
+    @SuppressWarnings("unchecked")
+    private <T> ConfigBinder<T> getBinder(Class<T> configClass) {
+        Optional<ConfigBinder<?>> binder = binderCache.get(configClass);
+        if (binder == null) {
+            binder = Optional.ofNullable(loadBinder(configClass));
+            binderCache.put(configClass, binder);
+        }
+        return (ConfigBinder<T>) binder.orElse(null);
+    }
 
-        NodeName nameAnnotation = field.getAnnotation(NodeName.class);
-        String nodeName = nameAnnotation == null ? field.getName() : nameAnnotation.value();
+    private ConfigBinder<?> loadBinder(Class<?> configClass) {
+        try {
+            Class<?> binderClass = Class.forName(configClass.getName() + "Binder", true,
+                    configClass.getClassLoader());
+            if (!ConfigBinder.class.isAssignableFrom(binderClass)) return null;
+            return (ConfigBinder<?>) binderClass.getDeclaredConstructor().newInstance();
+        } catch (ClassNotFoundException e) {
+            return null;
+        } catch (ReflectiveOperationException e) {
+            e.printStackTrace();
+            return null;
+        }
+    }
 
-        NodeDefault defaultAnnotation = field.getAnnotation(NodeDefault.class);
-        Object nodeDefault = defaultAnnotation == null ? constructDefaultField(field) : parseDefault(field);
+    private ConfigMetadata getMetadata(Class<?> configClass) {
+        ConfigMetadata metadata = metadataCache.get(configClass);
+        if (metadata == null) {
+            metadata = new ConfigMetadata(configClass);
+            metadataCache.put(configClass, metadata);
+        }
+        return metadata;
+    }
 
-        NodeComment commentAnnotation = field.getAnnotation(NodeComment.class);
-        String[] nodeComment = commentAnnotation == null ? new String[]{} : commentAnnotation.value();
+    private void initializeConfig(ConfigMetadata metadata, Config config) {
+        boolean changed = false;
+        for (NodeMetadata node : metadata.nodes)
+            changed |= initializeNode(node, config);
+        if (changed)
+            config.saveConfig();
+    }
+
+    private Config initConfigFile(ConfigMetadata metadata) {
+        return configManager.getNewConfig(metadata.filePath, metadata.header);
+    }
 
-        if (config.get(nodeName) != null) return;
-        config.set(nodeName, nodeDefault, nodeComment);
-        config.saveConfig();
+    /**
+     * Set the default of a node if it's missing from the config.
+     *
+     * @return true if the node was missing.
+     */
+    private boolean initializeNode(NodeMetadata node, Config config) {
+        if (config.get(node.name) != null) return false;
+        config.set(node.name, node.getDefault(), node.comment);
+        return true;
     }
 
-    private Object constructDefaultField(Field f) {
+    private static Object constructDefaultField(Field f) {
         try {
             if (f.getType().isPrimitive()) {
                 if (f.getType().equals(int.class))
@@ -133,7 +232,7 @@ public class ConfigurationManager {
         return null;
     }
 
-    private Object parseDefault(Field field) {
+    private static Object parseDefault(Field field) {
         NodeDefault defaultAnnotation = field.getAnnotation(NodeDefault.class);
         if (field.getType().equals(int.class))
             return Integer.valueOf(defaultAnnotation.value());
@@ -145,4 +244,69 @@ public class ConfigurationManager {
             return Arrays.stream(defaultAnnotation.value().split(",\\s+")).collect(Collectors.toList());
         return defaultAnnotation.value();
     }
+
+    /**
+     * Everything this class needs from the annotations of a configuration record.
+     */
+    private static final class ConfigMetadata {
+        private final String filePath;
+        private final String[] header;
+        private final Constructor<?> constructor;
+        private final Field rawConfigField;
+        private final List<NodeMetadata> nodes;
+
+        private ConfigMetadata(Class<?> configClass) {
+            ConfigPath pathAnnotation = configClass.getAnnotation(ConfigPath.class);
+            this.filePath = pathAnnotation == null ? configClass.getSimpleName() : pathAnnotation.value();
+
+            ConfigHeader headerAnnotation = configClass.getAnnotation(ConfigHeader.class);
+            this.header = headerAnnotation == null ? new String[] { configClass.getSimpleName(), "Configuration"} :
+                    headerAnnotation.value();
+
+            this.constructor = configClass.getDeclaredConstructors()[0];
+            Field rawConfig = null;
+            try {
+                rawConfig = configClass.getDeclaredField("rawConfig");
+            } catch (NoSuchFieldException e) {
+                e.printStackTrace();
+            }
+            this.rawConfigField = rawConfig;
+
+            List<NodeMetadata> nodes = new ArrayList<>();
+            for (Field field : configClass.getDeclaredFields()) {
+                if (field.getAnnotation(ConfigNode.class) == null) continue;
+                nodes.add(new NodeMetadata(field));
+            }
+            this.nodes = Collections.unmodifiableList(nodes);
+        }
+    }
+
+    private static final class NodeMetadata {
+        private final Field field;
+        private final String name;
+        private final String[] comment;
+        private final Object parsedDefault;
+
+        private NodeMetadata(Field field) {
+            this.field = field;
+            NodeName nameAnnotation = field.getAnnotation(NodeName.class);
+            this.name = nameAnnotation == null ? field.getName() : nameAnnotation.value();
+
+            NodeComment commentAnnotation = field.getAnnotation(NodeComment.class);
+            this.comment = commentAnnotation == null ? new String[]{} : commentAnnotation.value();
+
+            this.parsedDefault = field.getAnnotation(NodeDefault.class) == null ? null : parseDefault(field);
+        }
+
+        /**
+         * Get the default value for this node. Lists are copied, so configs never share them.
+         */
+        private Object getDefault() {
+            if (parsedDefault == null)
+                return constructDefaultField(field);
+            if (parsedDefault instanceof List)
+                return new ArrayList<>((List<?>) parsedDefault);
+            return parsedDefault;
+        }
+    }
 }
@@ -23,7 +23,9 @@ public class PromptConfig {
                 "Skull-Name-Format - 玩家头颅物品显示名称", "",
                 "Size - UI 的大小 (应是 9 的倍数, 在 18-54 之间)", "",
                 "Sorted - 是否需要对玩家头颅进行排序?", "",
-                "Per-World - 是否只显示当前世界的玩家?"
+                "Per-World - 是否只显示当前世界的玩家?", "",
+                "Warm-Up-Per-Tick - 每 tick 最多预加载多少个玩家头颅", "",
+                "Search - 按玩家名前缀搜索的按钮设置"
         })
         public
         String skullNameFormat;
@@ -40,6 +42,12 @@ public class PromptConfig {
         public
         int cacheSize;
 
+        @ConfigNode
+        @NodeName("PlayerUI.Warm-Up-Per-Tick")
+        @NodeDefault("4")
+        public
+        int warmUpPerTick;
+
         @ConfigNode
         @NodeName("PlayerUI.Previous.Item")
         @NodeDefault("Feather")
@@ -94,6 +102,30 @@ public class PromptConfig {
         public
         String cancelText;
 
+        @ConfigNode
+        @NodeName("PlayerUI.Search.Enabled")
+        @NodeDefault("true")
+        public
+        boolean searchEnabled;
+
+        @ConfigNode
+        @NodeName("PlayerUI.Search.Item")
+        @NodeDefault("Compass")
+        public
+        String searchItem;
+
+        @ConfigNode
+        @NodeName("PlayerUI.Search.Column")
+        @NodeDefault("1")
+        public
+        int searchColumn;
+
+        @ConfigNode
+        @NodeName("PlayerUI.Search.Text")
+        @NodeDefault("&7搜索玩家")
+        public
+        String searchText;
+
         @ConfigNode
         @NodeName("PlayerUI.Sorted")
         @NodeDefault("false")
@@ -5,6 +5,7 @@ import com.cyr1en.commandprompter.hook.annotations.TargetPlugin;
 import com.cyr1en.commandprompter.hook.hooks.PuerkasChatHook;
 import com.cyr1en.commandprompter.hook.hooks.SuperVanishHook;
 import com.cyr1en.commandprompter.hook.hooks.VentureChatHook;
+import com.cyr1en.commandprompter.listener.EventRegistrar;
 import org.bukkit.Bukkit;
 import org.bukkit.event.EventHandler;
 import org.bukkit.event.Listener;
@@ -20,14 +21,25 @@ public class HookContainer extends HashMap<Class<?>, Hook<?>> implements Listene
 
     private final CommandPrompter plugin;
 
+    /*
+     * Hooks are resolved once on ServerLoadEvent. Hot paths (commands, chat, joins) read
+     * these fields directly instead of going through the map.
+     */
+    private volatile Hook<VentureChatHook> ventureChat;
+    private volatile Hook<SuperVanishHook> superVanish;
+    private volatile Hook<PuerkasChatHook> puerkasChat;
+
     public HookContainer(CommandPrompter plugin) {
         this.plugin = plugin;
+        this.ventureChat = Hook.empty();
+        this.superVanish = Hook.empty();
+        this.puerkasChat = Hook.empty();
     }
 
     private void initHooks() {
-        hook(VentureChatHook.class);
-        hook(SuperVanishHook.class);
-        hook(PuerkasChatHook.class);
+        ventureChat = hook(VentureChatHook.class);
+        superVanish = hook(SuperVanishHook.class);
+        puerkasChat = hook(PuerkasChatHook.class);
     }
 
     @Override
@@ -38,9 +50,10 @@ public class HookContainer extends HashMap<Class<?>, Hook<?>> implements Listene
         return super.put(key, value);
     }
 
-    private <T> void hook(Class<T> pluginHook) {
+    private <T> Hook<T> hook(Class<T> pluginHook) {
         Hook<T> instance = constructHook(pluginHook);
         this.put(pluginHook, instance);
+        return instance;
     }
 
     private <T> Hook<T> constructHook(Class<T> pluginHook) {
@@ -62,7 +75,7 @@ public class HookContainer extends HashMap<Class<?>, Hook<?>> implements Listene
             plugin.getPluginLogger().debug("Hook construct: " + constructor.getName());
             T instance = constructor.newInstance(plugin);
             if(instance instanceof Listener)
-                plugin.getServer().getPluginManager().registerEvents((Listener) instance, plugin);
+                EventRegistrar.register((Listener) instance, plugin);
             plugin.getPluginLogger().debug("Hook instance: " + instance.getClass());
             return Hook.of(instance);
         } catch (InvocationTargetException | NoSuchMethodException | IllegalAccessException | InstantiationException |
@@ -77,6 +90,26 @@ public class HookContainer extends HashMap<Class<?>, Hook<?>> implements Listene
         return t;
     }
 
+    public Hook<VentureChatHook> getVentureChat() {
+        return ventureChat;
+    }
+
+    public Hook<SuperVanishHook> getSuperVanish() {
+        return superVanish;
+    }
+
+    public Hook<PuerkasChatHook> getPuerkasChat() {
+        return puerkasChat;
+    }
+
+    /**
+     * Drop anything the hooks have cached from their target plugins.
+     */
+    public void invalidateCaches() {
+        ventureChat.ifHooked(VentureChatHook::invalidate);
+        superVanish.ifHooked(SuperVanishHook::invalidate);
+    }
+
     @EventHandler
     public void onServerLoad(ServerLoadEvent event) {
         initHooks();
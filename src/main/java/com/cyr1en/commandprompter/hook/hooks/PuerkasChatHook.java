@@ -11,15 +11,16 @@ import org.bukkit.event.Listener;
 @TargetPlugin(pluginName = "PuerkasChat")
 public class PuerkasChatHook implements Listener {
     private final CommandPrompter plugin;
+    private final PromptResponseListener.ResponseHandler responseHandler;
 
     private PuerkasChatHook(CommandPrompter plugin) {
         this.plugin = plugin;
+        this.responseHandler = new PromptResponseListener.ResponseHandler(plugin);
     }
 
     @EventHandler(priority = EventPriority.NORMAL)
     public void onChat(PuerkasChatEvent event) {
         plugin.getPluginLogger().debug("PuerkasChatEvent Listener Invoked");
-        PromptResponseListener.ResponseHandler responseHandler = new PromptResponseListener.ResponseHandler(this.plugin);
         responseHandler.onResponse(event.getPlayer(), event.getChatMessage(), event);
     }
 }
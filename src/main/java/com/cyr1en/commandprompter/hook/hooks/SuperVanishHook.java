@@ -10,32 +10,64 @@ import org.bukkit.entity.Player;
 import org.bukkit.event.EventHandler;
 import org.bukkit.event.EventPriority;
 import org.bukkit.event.Listener;
+import org.bukkit.event.player.PlayerQuitEvent;
 
+import java.util.Map;
 import java.util.Objects;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.stream.Collectors;
 
 @TargetPlugin(pluginName = "SuperVanish")
 public class SuperVanishHook extends BaseHook implements Listener {
 
-    private final HeadCache headCache;
+    private final Map<UUID, Boolean> vanishStates;
 
     private SuperVanishHook(CommandPrompter plugin) {
         super(plugin);
-        this.headCache = plugin.getHeadCache();
+        this.vanishStates = new ConcurrentHashMap<>();
     }
 
+    /**
+     * Check if a player is vanished.
+     *
+     * <p>The state is looked up from SuperVanish once per player, then kept up to date
+     * with {@link PlayerVanishStateChangeEvent} until the player quits.</p>
+     *
+     * @param p player to check.
+     * @return true if the player is vanished.
+     */
     public boolean isInvisible(Player p) {
-        return VanishAPI.isInvisible(p);
+        return vanishStates.computeIfAbsent(p.getUniqueId(), uuid -> VanishAPI.isInvisible(p));
+    }
+
+    public void invalidate() {
+        vanishStates.clear();
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void cacheVanishState(PlayerVanishStateChangeEvent e) {
+        vanishStates.put(e.getUUID(), e.isVanishing());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onQuit(PlayerQuitEvent e) {
+        vanishStates.remove(e.getPlayer().getUniqueId());
     }
 
     @EventHandler(priority = EventPriority.NORMAL)
     public void onVisibilityStateChange(PlayerVanishStateChangeEvent e) {
+        // Don't create the head cache just for this, it reads vanish states when it's created.
+        HeadCache headCache = getPlugin().peekHeadCache();
+        if (headCache == null) return;
         getPlugin().getPluginLogger().debug("Pre Vanish State Change: " + headCache.getHeads().stream().map(i ->
                 Objects.requireNonNull(i.getItemMeta()).getDisplayName()).collect(Collectors.toList()));
+        Player player = Bukkit.getPlayer(e.getUUID());
+        if (player == null) return;
         if (e.isVanishing())
-            headCache.invalidate(Bukkit.getPlayer(e.getUUID()));
+            headCache.hide(player);
         else
-            headCache.getHeadFor(Objects.requireNonNull(Bukkit.getPlayer(e.getUUID())));
+            headCache.show(player);
         getPlugin().getPluginLogger().debug("Post Vanish State Change: " + headCache.getHeads().stream().map(i ->
                 Objects.requireNonNull(i.getItemMeta()).getDisplayName()).collect(Collectors.toList()));
     }
@@ -4,15 +4,45 @@ import com.cyr1en.commandprompter.CommandPrompter;
 import com.cyr1en.commandprompter.hook.annotations.TargetPlugin;
 import mineverse.Aust1n46.chat.channel.ChatChannel;
 
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
 @TargetPlugin(pluginName = "VentureChat")
 public class VentureChatHook extends BaseHook{
 
+    /**
+     * Command names are picked by players, so don't let the cache grow without bound.
+     */
+    private static final int MAX_CACHED = 512;
+
+    private final Map<String, Boolean> channelCache;
+
     private VentureChatHook(CommandPrompter plugin) {
        super(plugin);
+       this.channelCache = new ConcurrentHashMap<>();
     }
 
+    /**
+     * Check if an alias is a VentureChat channel.
+     *
+     * <p>VentureChat only loads its channels from its config, and does not fire an event when
+     * it does. Results are cached until {@link #invalidate()} is called on reload.</p>
+     *
+     * @param alias alias to check.
+     * @return true if the alias is a chat channel.
+     */
     public boolean isChatChannel(String alias) {
-        return ChatChannel.isChannel(alias);
+        Boolean cached = channelCache.get(alias);
+        if (cached != null) return cached;
+        boolean isChannel = ChatChannel.isChannel(alias);
+        if (channelCache.size() >= MAX_CACHED)
+            channelCache.clear();
+        channelCache.put(alias, isChannel);
+        return isChannel;
+    }
+
+    public void invalidate() {
+        channelCache.clear();
     }
 
 }
@@ -28,6 +28,7 @@ import com.cyr1en.commandprompter.CommandPrompter;
 import com.cyr1en.commandprompter.commands.Cancel;
 import com.cyr1en.commandprompter.hook.Hook;
 import com.cyr1en.commandprompter.hook.hooks.VentureChatHook;
+import com.cyr1en.commandprompter.metrics.MetricsRegistry;
 import com.cyr1en.commandprompter.prompt.PromptContext;
 import com.cyr1en.commandprompter.prompt.PromptManager;
 import org.bukkit.entity.Player;
@@ -48,6 +49,7 @@ public class CommandListener implements Listener {
     }
 
     protected void process(PromptContext context) {
+        plugin.getMetrics().increment(MetricsRegistry.Counter.COMMANDS_SCANNED);
         // Sanity Checks
         plugin.getPluginLogger().debug("Command: " + context.getContent());
         plugin.getPluginLogger().debug("Command Caught using: %s", this.getClass().getSimpleName());
@@ -63,11 +65,13 @@ public class CommandListener implements Listener {
 
         if (!context.getSender().hasPermission("commandprompter.use") &&
                 plugin.getConfiguration().enablePermission) {
+            plugin.getMetrics().increment(MetricsRegistry.Counter.COMMANDS_REJECTED);
             plugin.getMessenger().sendMessage(context.getSender(),
                     plugin.getI18N().getProperty("PromptNoPerm"));
             return;
         }
         if (promptManager.getPromptRegistry().inCommandProcess(context.getSender())) {
+            plugin.getMetrics().increment(MetricsRegistry.Counter.COMMANDS_REJECTED);
             plugin.getMessenger().sendMessage(context.getSender(),
                     plugin.getI18N().getFormattedProperty("PromptInProgress",
                             plugin.getConfiguration().cancelKeyword));
@@ -78,6 +82,7 @@ public class CommandListener implements Listener {
         parsePermissionAttachment(context);
         if (!promptManager.getParser().isParsable(context)) return;
         if (!(context.getSender() instanceof Player)) {
+            plugin.getMetrics().increment(MetricsRegistry.Counter.COMMANDS_REJECTED);
             plugin.getMessenger().sendMessage(context.getSender(),
                     plugin.getI18N().getProperty("PromptPlayerOnly"));
             return;
@@ -97,7 +102,7 @@ public class CommandListener implements Listener {
 
     private boolean isCmdChatChannel(String cmd) {
         AtomicBoolean out = new AtomicBoolean(false);
-        Hook<VentureChatHook> vcHook = plugin.getHookContainer().getHook(VentureChatHook.class);
+        Hook<VentureChatHook> vcHook = plugin.getHookContainer().getVentureChat();
         plugin.getPluginLogger().debug("VentureChat hooked: " + vcHook.isHooked());
         vcHook.ifHooked(hook -> out.set(hook.isChatChannel(cmd)));
         plugin.getPluginLogger().debug("is VentureChat channel: " + out.get());
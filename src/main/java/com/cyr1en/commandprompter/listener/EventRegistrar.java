@@ -0,0 +1,145 @@
+package com.cyr1en.commandprompter.listener;
+
+import org.bukkit.Bukkit;
+import org.bukkit.event.Event;
+import org.bukkit.event.EventException;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.Listener;
+import org.bukkit.plugin.EventExecutor;
+import org.bukkit.plugin.Plugin;
+
+import java.lang.invoke.CallSite;
+import java.lang.invoke.LambdaMetafactory;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.LinkedHashSet;
+import java.util.Set;
+import java.util.function.BiConsumer;
+
+/**
+ * Registers our listeners with {@link org.bukkit.plugin.PluginManager#registerEvent} instead of
+ * {@link org.bukkit.plugin.PluginManager#registerEvents}.
+ *
+ * <p>Spigot invokes handlers registered with registerEvents through {@link Method#invoke}.
+ * Here every {@link EventHandler} method gets an {@link EventExecutor} that calls it directly,
+ * through a class spun up by {@link LambdaMetafactory}. If that fails for a handler (i.e. it is
+ * not accessible from here), it falls back to the same reflective call Spigot would do.</p>
+ */
+public final class EventRegistrar {
+
+    private static final MethodHandles.Lookup LOOKUP = MethodHandles.lookup();
+
+    private EventRegistrar() {
+    }
+
+    /**
+     * Register all event handlers of a listener at the priority of their {@link EventHandler}.
+     *
+     * @param listener listener to register.
+     * @param plugin   plugin to register the listener to.
+     */
+    public static void register(Listener listener, Plugin plugin) {
+        register(listener, plugin, null);
+    }
+
+    /**
+     * Register all event handlers of a listener.
+     *
+     * @param listener listener to register.
+     * @param plugin   plugin to register the listener to.
+     * @param priority priority to use for every handler, or null to use the one from {@link EventHandler}.
+     */
+    public static void register(Listener listener, Plugin plugin, EventPriority priority) {
+        for (Method method : getHandlerMethods(listener.getClass())) {
+            EventHandler handler = method.getAnnotation(EventHandler.class);
+            Class<? extends Event> eventClass = method.getParameterTypes()[0].asSubclass(Event.class);
+            Bukkit.getPluginManager().registerEvent(eventClass, listener,
+                    priority == null ? handler.priority() : priority,
+                    createExecutor(method, eventClass), plugin, handler.ignoreCancelled());
+        }
+    }
+
+    /**
+     * Create an executor that calls an event handler method.
+     *
+     * @param method     handler method, taking a single event parameter.
+     * @param eventClass event class the method handles.
+     * @return executor for the handler.
+     */
+    public static EventExecutor createExecutor(Method method, Class<? extends Event> eventClass) {
+        BiConsumer<Object, Object> invoker;
+        try {
+            invoker = generateInvoker(method);
+        } catch (Throwable t) {
+            return reflectiveExecutor(method, eventClass);
+        }
+        return (listener, event) -> {
+            // Same check Spigot does, handlers also get called for subclasses of their event.
+            if (!eventClass.isAssignableFrom(event.getClass())) return;
+            try {
+                invoker.accept(listener, event);
+            } catch (Throwable t) {
+                throw new EventException(t);
+            }
+        };
+    }
+
+    /**
+     * Create an executor that calls an event handler method through reflection.
+     *
+     * <p>This is what Spigot does for listeners registered with registerEvents.</p>
+     *
+     * @param method     handler method, taking a single event parameter.
+     * @param eventClass event class the method handles.
+     * @return executor for the handler.
+     */
+    public static EventExecutor reflectiveExecutor(Method method, Class<? extends Event> eventClass) {
+        method.setAccessible(true);
+        return (listener, event) -> {
+            if (!eventClass.isAssignableFrom(event.getClass())) return;
+            try {
+                method.invoke(listener, event);
+            } catch (InvocationTargetException e) {
+                throw new EventException(e.getCause());
+            } catch (Throwable t) {
+                throw new EventException(t);
+            }
+        };
+    }
+
+    @SuppressWarnings("unchecked")
+    private static BiConsumer<Object, Object> generateInvoker(Method method) throws Throwable {
+        if (!Modifier.isPublic(method.getModifiers()) || !Modifier.isPublic(method.getDeclaringClass().getModifiers()))
+            throw new IllegalAccessException(method + " is not public");
+        MethodHandle target = LOOKUP.unreflect(method);
+        CallSite site = LambdaMetafactory.metafactory(LOOKUP, "accept",
+                MethodType.methodType(BiConsumer.class),
+                MethodType.methodType(void.class, Object.class, Object.class),
+                target,
+                MethodType.methodType(void.class, method.getDeclaringClass(), method.getParameterTypes()[0]));
+        return (BiConsumer<Object, Object>) site.getTarget().invokeExact();
+    }
+
+    private static Set<Method> getHandlerMethods(Class<?> listenerClass) {
+        Set<Method> candidates = new LinkedHashSet<>();
+        for (Method method : listenerClass.getMethods())
+            candidates.add(method);
+        for (Method method : listenerClass.getDeclaredMethods())
+            candidates.add(method);
+
+        Set<Method> handlers = new LinkedHashSet<>();
+        for (Method method : candidates) {
+            if (method.isBridge() || method.isSynthetic()) continue;
+            if (!method.isAnnotationPresent(EventHandler.class)) continue;
+            if (method.getParameterCount() != 1 || !Event.class.isAssignableFrom(method.getParameterTypes()[0]))
+                continue;
+            handlers.add(method);
+        }
+        return handlers;
+    }
+}
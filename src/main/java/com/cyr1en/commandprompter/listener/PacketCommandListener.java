@@ -0,0 +1,184 @@
+package com.cyr1en.commandprompter.listener;
+
+import com.comphenix.protocol.PacketType;
+import com.comphenix.protocol.ProtocolLibrary;
+import com.comphenix.protocol.events.PacketAdapter;
+import com.comphenix.protocol.events.PacketEvent;
+import com.comphenix.protocol.events.PacketListener;
+import com.cyr1en.commandprompter.prompt.PromptContext;
+import com.cyr1en.commandprompter.prompt.PromptManager;
+import org.bukkit.Bukkit;
+import org.bukkit.entity.Player;
+import org.bukkit.event.Cancellable;
+import org.bukkit.event.player.PlayerCommandPreprocessEvent;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Command listener that reads commands straight from serverbound packets through ProtocolLib.
+ *
+ * <p>Commands are pre-scanned on the netty thread. Only commands that contain the prompt
+ * delimiter are held back and handed to the main thread. Every other command packet is left
+ * alone and never reaches the rest of this plugin, even if the player is in the middle of a prompt.</p>
+ *
+ * <p>A command that was held back but turns out not to be prompted is replayed through the
+ * same path the server takes for a command: a {@link PlayerCommandPreprocessEvent} is fired once,
+ * and unless it gets cancelled, the command is dispatched with {@link Bukkit#dispatchCommand}.
+ * Signed arguments of the original packet can't be replayed. While a player has commands held
+ * back, every later command of theirs is held back too and replayed after them, so the server
+ * still sees a player's commands in the order they were sent.</p>
+ */
+public class PacketCommandListener extends CommandListener {
+
+    private final Map<UUID, Deque<String>> held;
+    private PacketListener packetListener;
+
+    public PacketCommandListener(PromptManager manager) {
+        super(manager);
+        this.held = new HashMap<>();
+    }
+
+    /**
+     * Start listening for command packets.
+     */
+    public void register() {
+        if (packetListener != null) return;
+        packetListener = createPacketListener();
+        ProtocolLibrary.getProtocolManager().addPacketListener(packetListener);
+    }
+
+    /**
+     * Stop listening for command packets.
+     */
+    public void unregister() {
+        if (packetListener == null) return;
+        ProtocolLibrary.getProtocolManager().removePacketListener(packetListener);
+        packetListener = null;
+    }
+
+    private PacketListener createPacketListener() {
+        PacketType chatCommand = getChatCommandType();
+        List<PacketType> types = new ArrayList<>();
+        types.add(PacketType.Play.Client.CHAT);
+        if (chatCommand != null)
+            types.add(chatCommand);
+        plugin.getPluginLogger().debug("Intercepting packets: " + types);
+
+        return new PacketAdapter(plugin, types) {
+            @Override
+            public void onPacketReceiving(PacketEvent event) {
+                if (event.isPlayerTemporary()) return;
+                String message = event.getPacket().getStrings().readSafely(0);
+                if (message == null) return;
+
+                String command;
+                if (event.getPacketType() == chatCommand)
+                    command = message;
+                else if (message.startsWith("/"))
+                    command = message.substring(1);
+                else
+                    return;
+
+                if (receive(event.getPlayer(), command))
+                    event.setCancelled(true);
+            }
+        };
+    }
+
+    /**
+     * Hold back a command if it may be prompted, or if the player already has commands held back.
+     * Runs on the netty thread.
+     *
+     * @param player  player that sent the command.
+     * @param command command without the leading slash.
+     * @return true if the command was held back and its packet has to be cancelled.
+     */
+    boolean receive(Player player, String command) {
+        boolean mayPrompt = promptManager.getParser().mayContainPrompt(command);
+        boolean first;
+        synchronized (held) {
+            Deque<String> queue = held.get(player.getUniqueId());
+            if (queue == null && !mayPrompt) return false;
+            first = queue == null;
+            if (first) {
+                queue = new ArrayDeque<>();
+                held.put(player.getUniqueId(), queue);
+            }
+            queue.add(command);
+        }
+        if (first)
+            Bukkit.getScheduler().runTask(plugin, () -> drain(player));
+        return true;
+    }
+
+    /**
+     * Process the held back commands of a player in the order they were sent,
+     * including the ones that came in while draining. Runs on the main thread.
+     */
+    private void drain(Player player) {
+        while (true) {
+            String command;
+            synchronized (held) {
+                Deque<String> queue = held.get(player.getUniqueId());
+                command = queue == null ? null : queue.poll();
+                if (command == null) {
+                    held.remove(player.getUniqueId());
+                    return;
+                }
+            }
+            try {
+                onCommand(player, command);
+            } catch (RuntimeException e) {
+                plugin.getPluginLogger().err("Could not process held back command '%s': %s", command, e);
+            }
+        }
+    }
+
+    /**
+     * Process a held back command, and replay it if it isn't prompted. Runs on the main thread.
+     */
+    private void onCommand(Player player, String command) {
+        if (!player.isOnline()) return;
+        CommandHold hold = new CommandHold();
+        this.process(new PromptContext(hold, player, command));
+        if (hold.isCancelled()) return;
+
+        PlayerCommandPreprocessEvent event = new PlayerCommandPreprocessEvent(player, "/" + command);
+        Bukkit.getPluginManager().callEvent(event);
+        if (event.isCancelled()) return;
+        String message = event.getMessage();
+        Bukkit.dispatchCommand(event.getPlayer(), message.startsWith("/") ? message.substring(1) : message);
+    }
+
+    /**
+     * Chat commands got their own packet in 1.19. It's looked up by name since the
+     * ProtocolLib we compile against predates it.
+     */
+    private static PacketType getChatCommandType() {
+        try {
+            return (PacketType) PacketType.Play.Client.class.getField("CHAT_COMMAND").get(null);
+        } catch (NoSuchFieldException | IllegalAccessException e) {
+            return null;
+        }
+    }
+
+    private static final class CommandHold implements Cancellable {
+        private boolean cancelled;
+
+        @Override
+        public boolean isCancelled() {
+            return cancelled;
+        }
+
+        @Override
+        public void setCancelled(boolean cancel) {
+            this.cancelled = cancel;
+        }
+    }
+}
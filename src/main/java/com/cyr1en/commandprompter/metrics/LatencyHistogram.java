@@ -0,0 +1,113 @@
+package com.cyr1en.commandprompter.metrics;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Lock-free latency histogram with fixed buckets from 1µs to 60s.
+ *
+ * <p>Recording is a binary search over the bucket bounds and two {@link LongAdder}
+ * increments, so it's cheap enough for hot paths and safe from any thread. Percentiles
+ * are estimated as the upper bound of the bucket they fall in.</p>
+ */
+public final class LatencyHistogram {
+
+    private static final long[] BOUNDS = bounds();
+
+    private final LongAdder[] buckets;
+    private final LongAdder count;
+    private final LongAdder total;
+    private final LongAccumulator max;
+
+    public LatencyHistogram() {
+        // One extra bucket for everything above the last bound.
+        this.buckets = new LongAdder[BOUNDS.length + 1];
+        for (int i = 0; i < buckets.length; i++)
+            buckets[i] = new LongAdder();
+        this.count = new LongAdder();
+        this.total = new LongAdder();
+        this.max = new LongAccumulator(Math::max, 0);
+    }
+
+    /**
+     * 1, 2 and 5 steps from 1µs to 5s, then 10, 20, 30 and 60s, in nanoseconds.
+     */
+    private static long[] bounds() {
+        long[] bounds = new long[25];
+        int i = 0;
+        for (long decade = TimeUnit.MICROSECONDS.toNanos(1); decade <= TimeUnit.SECONDS.toNanos(1); decade *= 10) {
+            bounds[i++] = decade;
+            bounds[i++] = decade * 2;
+            bounds[i++] = decade * 5;
+        }
+        for (long seconds : new long[]{10, 20, 30, 60})
+            bounds[i++] = TimeUnit.SECONDS.toNanos(seconds);
+        return bounds;
+    }
+
+    public void record(long nanos) {
+        if (nanos < 0) nanos = 0;
+        buckets[bucketOf(nanos)].increment();
+        count.increment();
+        total.add(nanos);
+        max.accumulate(nanos);
+    }
+
+    private static int bucketOf(long nanos) {
+        int low = 0;
+        int high = BOUNDS.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (BOUNDS[mid] < nanos) low = mid + 1;
+            else high = mid;
+        }
+        return low;
+    }
+
+    public long getCount() {
+        return count.sum();
+    }
+
+    public long getMean() {
+        long n = count.sum();
+        return n == 0 ? 0 : total.sum() / n;
+    }
+
+    public long getMax() {
+        return max.get();
+    }
+
+    /**
+     * Estimate a percentile.
+     *
+     * @param percent percentile to estimate, i.e. 99.
+     * @return upper bound of the bucket the percentile falls in, in nanoseconds. The largest
+     * recorded value if it's in the last bucket, or 0 if nothing was recorded.
+     */
+    public long getPercentile(double percent) {
+        long[] counts = new long[buckets.length];
+        long n = 0;
+        for (int i = 0; i < buckets.length; i++) {
+            counts[i] = buckets[i].sum();
+            n += counts[i];
+        }
+        if (n == 0) return 0;
+        long rank = (long) Math.ceil(percent / 100.0 * n);
+        long seen = 0;
+        for (int i = 0; i < counts.length; i++) {
+            seen += counts[i];
+            if (seen >= rank)
+                return i < BOUNDS.length ? Math.min(BOUNDS[i], getMax()) : getMax();
+        }
+        return getMax();
+    }
+
+    public void reset() {
+        for (LongAdder bucket : buckets)
+            bucket.reset();
+        count.reset();
+        total.reset();
+        max.reset();
+    }
+}
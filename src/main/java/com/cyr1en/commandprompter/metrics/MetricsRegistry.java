@@ -0,0 +1,106 @@
+package com.cyr1en.commandprompter.metrics;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Counters and latencies of the plugin's hot paths, shown by {@code /commandprompter stats}.
+ *
+ * <p>Everything is backed by {@link LongAdder}s, so recording doesn't lock and is safe
+ * from any thread, i.e. the async chat thread. Values are kept from the start of the
+ * server, or from the last {@link #reset()}.</p>
+ */
+public class MetricsRegistry {
+
+    public enum Counter {
+        COMMANDS_SCANNED,
+        COMMANDS_REJECTED,
+        SESSIONS_STARTED,
+        SESSIONS_COMPLETED,
+        SESSIONS_CANCELLED,
+        SESSIONS_TIMED_OUT,
+        HEAD_CACHE_HITS,
+        HEAD_CACHE_MISSES
+    }
+
+    public enum Latency {
+        PARSE,
+        DISPATCH,
+        HEAD_LOAD
+    }
+
+    private final LongAdder[] counters;
+    private final LatencyHistogram[] latencies;
+    private final Map<String, LatencyHistogram> answerTimes;
+    private volatile long since;
+
+    public MetricsRegistry() {
+        this.counters = new LongAdder[Counter.values().length];
+        for (int i = 0; i < counters.length; i++)
+            counters[i] = new LongAdder();
+        this.latencies = new LatencyHistogram[Latency.values().length];
+        for (int i = 0; i < latencies.length; i++)
+            latencies[i] = new LatencyHistogram();
+        this.answerTimes = new ConcurrentHashMap<>();
+        this.since = System.currentTimeMillis();
+    }
+
+    public void increment(Counter counter) {
+        counters[counter.ordinal()].increment();
+    }
+
+    public long get(Counter counter) {
+        return counters[counter.ordinal()].sum();
+    }
+
+    /**
+     * @param latency what was timed.
+     * @param nanos   how long it took.
+     */
+    public void record(Latency latency, long nanos) {
+        latencies[latency.ordinal()].record(nanos);
+    }
+
+    public LatencyHistogram get(Latency latency) {
+        return latencies[latency.ordinal()];
+    }
+
+    /**
+     * Record the time a player took to answer a prompt.
+     *
+     * @param promptType simple class name of the prompt, i.e. ChatPrompt.
+     * @param nanos      time from sending the prompt to getting the answer.
+     */
+    public void recordAnswer(String promptType, long nanos) {
+        LatencyHistogram histogram = answerTimes.get(promptType);
+        if (histogram == null)
+            histogram = answerTimes.computeIfAbsent(promptType, type -> new LatencyHistogram());
+        histogram.record(nanos);
+    }
+
+    /**
+     * @return time to answer per prompt type, sorted by type.
+     */
+    public Map<String, LatencyHistogram> getAnswerTimes() {
+        return Collections.unmodifiableMap(new TreeMap<>(answerTimes));
+    }
+
+    /**
+     * @return when the values started being recorded, in epoch milliseconds.
+     */
+    public long getSince() {
+        return since;
+    }
+
+    public void reset() {
+        for (LongAdder counter : counters)
+            counter.reset();
+        for (LatencyHistogram latency : latencies)
+            latency.reset();
+        answerTimes.clear();
+        since = System.currentTimeMillis();
+    }
+}
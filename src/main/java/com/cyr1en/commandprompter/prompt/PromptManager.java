@@ -27,6 +27,7 @@ package com.cyr1en.commandprompter.prompt;
 import com.cyr1en.commandprompter.CommandPrompter;
 import com.cyr1en.commandprompter.api.Dispatcher;
 import com.cyr1en.commandprompter.api.prompt.Prompt;
+import com.cyr1en.commandprompter.metrics.MetricsRegistry;
 import com.cyr1en.commandprompter.prompt.prompts.AnvilPrompt;
 import com.cyr1en.commandprompter.prompt.prompts.ChatPrompt;
 import com.cyr1en.commandprompter.prompt.prompts.PlayerUIPrompt;
@@ -70,7 +71,7 @@ public class PromptManager extends HashMap<String, Class<? extends Prompt>> {
         this.put("", ChatPrompt.class);
         this.put("a", AnvilPrompt.class);
         this.put("p", PlayerUIPrompt.class);
-        if (plugin.getServer().getPluginManager().getPlugin("ProtocolLib") != null)
+        if (plugin.isSignPromptAvailable())
             this.put("s", SignPrompt.class);
         else
             plugin.getPluginLogger().warn("ProtocolLib not found. Sign GUI prompt is disabled.");
@@ -85,7 +86,11 @@ public class PromptManager extends HashMap<String, Class<? extends Prompt>> {
     }
 
     public void parse(PromptContext context) {
+        long start = System.nanoTime();
         int queueHash = promptParser.parsePrompts(context);
+        MetricsRegistry metrics = plugin.getMetrics();
+        metrics.record(MetricsRegistry.Latency.PARSE, System.nanoTime() - start);
+        metrics.increment(MetricsRegistry.Counter.SESSIONS_STARTED);
         int timeout = plugin.getConfiguration().promptTimeout;
         scheduler.runTaskLater(plugin, () -> cancel(context.getSender(), queueHash), 20L * timeout);
     }
@@ -94,8 +99,12 @@ public class PromptManager extends HashMap<String, Class<? extends Prompt>> {
         if (!promptRegistry.containsKey(sender)) return;
         if (promptRegistry.get(sender).isEmpty()) return;
         plugin.getPluginLogger().debug("PromptQueue for %s: %s", sender.getName(), promptRegistry.get(sender));
-        Prompt prompt = Objects.requireNonNull(promptRegistry.get(sender).peek());
-        Bukkit.getScheduler().runTaskLater(plugin, prompt::sendPrompt, 2L);
+        PromptQueue queue = promptRegistry.get(sender);
+        Prompt prompt = Objects.requireNonNull(queue.peek());
+        Bukkit.getScheduler().runTaskLater(plugin, () -> {
+            queue.setPromptSentAt(System.nanoTime());
+            prompt.sendPrompt();
+        }, 2L);
         plugin.getPluginLogger().debug("Sent %s to %s", prompt.getClass().getSimpleName(), sender.getName());
     }
 
@@ -105,8 +114,9 @@ public class PromptManager extends HashMap<String, Class<? extends Prompt>> {
         if (!getPromptRegistry().containsKey(sender)) return;
         if (promptRegistry.get(sender).isEmpty()) return;
 
-        getPromptRegistry().get(sender).poll();
+        Prompt answered = getPromptRegistry().get(sender).poll();
         getPromptRegistry().get(sender).addCompleted(context.getContent());
+        recordAnswer(answered, promptRegistry.get(sender));
         plugin.getPluginLogger().debug("PromptQueue for %s: %s", sender.getName(), promptRegistry.get(sender));
         if (promptRegistry.get(sender).isEmpty()) {
             PromptQueue queue = promptRegistry.get(sender);
@@ -140,11 +150,19 @@ public class PromptManager extends HashMap<String, Class<? extends Prompt>> {
                 }, 2L);
             }
             promptRegistry.unregister(sender);
+            plugin.getMetrics().increment(MetricsRegistry.Counter.SESSIONS_COMPLETED);
         } else if (sender instanceof Player)
             sendPrompt(sender);
 
     }
 
+    private void recordAnswer(Prompt answered, PromptQueue queue) {
+        long sentAt = queue.getPromptSentAt();
+        if (answered == null || sentAt == 0) return;
+        plugin.getMetrics().recordAnswer(answered.getClass().getSimpleName(), System.nanoTime() - sentAt);
+        queue.setPromptSentAt(0);
+    }
+
     public PromptRegistry getPromptRegistry() {
         return promptRegistry;
     }
@@ -159,6 +177,8 @@ public class PromptManager extends HashMap<String, Class<? extends Prompt>> {
         plugin.getPluginLogger().debug("registryQueueHash: " + promptRegistry.get(sender).hashCode());
         if (queueHash != -1 && queueHash != promptRegistry.get(sender).hashCode()) return;
         promptRegistry.unregister(sender);
+        plugin.getMetrics().increment(queueHash == -1 ?
+                MetricsRegistry.Counter.SESSIONS_CANCELLED : MetricsRegistry.Counter.SESSIONS_TIMED_OUT);
         plugin.getMessenger().sendMessage(sender, plugin.getI18N().getProperty("PromptCancel"));
         plugin.getPluginLogger().debug("Command completion called for: %s", sender.getName());
     }
@@ -41,6 +41,7 @@ public class PromptParser {
     private final SRegex sRegex;
     private final PromptManager manager;
     private String escapedRegex;
+    private volatile char openingDelimiter;
 
     public PromptParser(PromptManager promptManager) {
         this.plugin = promptManager.getPlugin();
@@ -53,6 +54,7 @@ public class PromptParser {
     public void initRegex() {
         String regex = plugin.getConfiguration().argumentRegex.trim();
         this.escapedRegex = escapeRegex(regex);
+        this.openingDelimiter = regex.charAt(0);
     }
 
     private String escapeRegex(String regex) {
@@ -67,6 +69,19 @@ public class PromptParser {
         return escapedRegex;
     }
 
+    /**
+     * Cheap pre-check for {@link #isParsable(PromptContext)}.
+     *
+     * <p>A command can only have prompts if it contains the opening delimiter of the
+     * argument regex. Safe to call from any thread.</p>
+     *
+     * @param commandLine command line to check.
+     * @return false if the command line definitely has no prompts.
+     */
+    public boolean mayContainPrompt(String commandLine) {
+        return commandLine.indexOf(openingDelimiter) != -1;
+    }
+
     public boolean isParsable(PromptContext promptContext) {
         List<String> prompts = getPrompts(promptContext);
         return !prompts.isEmpty();
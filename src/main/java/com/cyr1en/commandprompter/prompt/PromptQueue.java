@@ -12,6 +12,7 @@ public class PromptQueue extends LinkedList<Prompt> {
     private final boolean isOp;
 
     private final boolean isSetPermissionAttachment;
+    private volatile long promptSentAt;
 
     public PromptQueue(String command, boolean isOp, boolean isSetPermissionAttachment, String escapedRegex) {
         super();
@@ -34,6 +35,17 @@ public class PromptQueue extends LinkedList<Prompt> {
         return isSetPermissionAttachment;
     }
 
+    /**
+     * @return {@link System#nanoTime()} of when the current prompt was sent, 0 if it wasn't sent yet.
+     */
+    public long getPromptSentAt() {
+        return promptSentAt;
+    }
+
+    public void setPromptSentAt(long promptSentAt) {
+        this.promptSentAt = promptSentAt;
+    }
+
     public String getCompleteCommand() {
         command = String.format(command, completed);
         while (!completed.isEmpty())
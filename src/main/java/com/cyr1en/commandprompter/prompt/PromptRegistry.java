@@ -26,8 +26,12 @@ package com.cyr1en.commandprompter.prompt;
 import com.cyr1en.commandprompter.CommandPrompter;
 import com.cyr1en.commandprompter.api.prompt.Prompt;
 import org.bukkit.command.CommandSender;
+import org.bukkit.entity.Player;
 
 import java.util.HashMap;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * Class that will hold all ongoing prompts.
@@ -39,8 +43,41 @@ public class PromptRegistry extends HashMap<CommandSender, PromptQueue> {
 
     private final CommandPrompter pluginInstance;
 
+    /*
+     * The registry itself is only modified on the main thread. These mirror it for
+     * readers on other threads, i.e. the async chat listener.
+     */
+    private final Set<UUID> activePlayers;
+    private volatile int sessionCount;
+
     public PromptRegistry(CommandPrompter pluginInstance) {
         this.pluginInstance = pluginInstance;
+        this.activePlayers = ConcurrentHashMap.newKeySet();
+    }
+
+    @Override
+    public PromptQueue put(CommandSender key, PromptQueue value) {
+        PromptQueue old = super.put(key, value);
+        if (key instanceof Player)
+            activePlayers.add(((Player) key).getUniqueId());
+        sessionCount = size();
+        return old;
+    }
+
+    @Override
+    public PromptQueue remove(Object key) {
+        PromptQueue old = super.remove(key);
+        if (key instanceof Player)
+            activePlayers.remove(((Player) key).getUniqueId());
+        sessionCount = size();
+        return old;
+    }
+
+    @Override
+    public void clear() {
+        super.clear();
+        activePlayers.clear();
+        sessionCount = 0;
     }
 
     public void initRegistryFor(PromptContext context, String command, String escapedRegex) {
@@ -66,4 +103,23 @@ public class PromptRegistry extends HashMap<CommandSender, PromptQueue> {
         return containsKey(sender);
     }
 
+    /**
+     * Checks if anyone is in the middle of a prompt. Safe to call from any thread.
+     *
+     * @return true if there is at least one active prompt session.
+     */
+    public boolean hasActiveSessions() {
+        return sessionCount != 0;
+    }
+
+    /**
+     * Checks if a player is in the middle of a prompt. Safe to call from any thread.
+     *
+     * @param player player to check.
+     * @return true if the player has an active prompt session.
+     */
+    public boolean hasSession(Player player) {
+        return activePlayers.contains(player.getUniqueId());
+    }
+
 }
@@ -2,8 +2,7 @@ package com.cyr1en.commandprompter.prompt;
 
 import com.cyr1en.commandprompter.CommandPrompter;
 import com.cyr1en.commandprompter.PluginLogger;
-import com.cyr1en.commandprompter.hook.hooks.PuerkasChatHook;
-import com.cyr1en.commandprompter.unsafe.PvtFieldMutator;
+import com.cyr1en.commandprompter.listener.EventRegistrar;
 import es.capitanpuerka.puerkaschat.manager.PuerkasFormat;
 import org.bukkit.Bukkit;
 import org.bukkit.ChatColor;
@@ -13,9 +12,6 @@ import org.bukkit.event.player.AsyncPlayerChatEvent;
 import org.bukkit.plugin.RegisteredListener;
 import org.fusesource.jansi.Ansi;
 
-import java.lang.reflect.Field;
-import java.util.ArrayList;
-import java.util.EnumMap;
 import java.util.Locale;
 import java.util.Objects;
 
@@ -38,7 +34,9 @@ public class PromptResponseListener implements Listener {
 
     @EventHandler(priority = EventPriority.LOWEST)
     public void onChat(AsyncPlayerChatEvent event) {
-        boolean isPuerkasChatHooked = plugin.getHookContainer().getHook(PuerkasChatHook.class).isHooked();
+        // Runs for every chat message, bail out before anything else when nobody is mid-prompt.
+        if (!manager.getPromptRegistry().hasActiveSessions()) return;
+        boolean isPuerkasChatHooked = plugin.getHookContainer().getPuerkasChat().isHooked();
         if (!isPuerkasChatHooked) {
             handler.onResponse(event.getPlayer(), event.getMessage(), event);
         } else if ((PuerkasFormat.getFormats() != null && !PuerkasFormat.getFormats().isEmpty()))
@@ -56,7 +54,7 @@ public class PromptResponseListener implements Listener {
 
         public void onResponse(Player player, String msg, Cancellable event) {
             plugin.getPluginLogger().debug("Cancellable event: " + event.getClass().getSimpleName());
-            if (!manager.getPromptRegistry().inCommandProcess(player))
+            if (!manager.getPromptRegistry().hasSession(player))
                 return;
             event.setCancelled(true);
             String message = ChatColor.stripColor(
@@ -94,31 +92,15 @@ public class PromptResponseListener implements Listener {
 
     private static synchronized void setPriority(CommandPrompter plugin, EventPriority newPriority) {
         PluginLogger logger = plugin.getPluginLogger();
-        EventPriority oldPriority = getCurrentEventPriority(plugin);
+        RegisteredListener registered = getRegisteredListener(plugin);
+        if (registered == null) throw new NullPointerException();
         logger.debug("Setting PromptResponseListener priority from '%s' to '%s'",
-                oldPriority == null ? "null" : oldPriority.name(), newPriority.name());
-        HandlerList handlerList = AsyncPlayerChatEvent.getHandlerList();
-        try {
-            Field handlerSlotsF = handlerList.getClass().getDeclaredField("handlerslots");
-            handlerSlotsF.setAccessible(true);
-            @SuppressWarnings("unchecked")
-            EnumMap<EventPriority, ArrayList<RegisteredListener>> handlerSlots = (EnumMap<EventPriority, ArrayList<RegisteredListener>>) handlerSlotsF.get(handlerList);
-            EventPriority currentPriority = getCurrentEventPriority(plugin);
-
-            RegisteredListener registeredListener = handlerSlots.get(currentPriority).stream()
-                    .filter(rL -> rL.getListener().getClass().equals(PromptResponseListener.class))
-                    .findFirst().orElse(null);
-            if (registeredListener == null) throw new NullPointerException();
-
-            handlerList.unregister(registeredListener);
+                registered.getPriority().name(), newPriority.name());
 
-            PvtFieldMutator.forField("priority").in(registeredListener).replaceWith(newPriority);
-
-            handlerList.register(registeredListener);
-            handlerList.bake();
-        } catch (NoSuchFieldException | IllegalAccessException e) {
-            throw new RuntimeException(e);
-        }
+        // Re-register at the new priority, the listener only handles AsyncPlayerChatEvent.
+        Listener listener = registered.getListener();
+        HandlerList.unregisterAll(listener);
+        EventRegistrar.register(listener, plugin, newPriority);
 
         EventPriority priority = getCurrentEventPriority(plugin);
         logger.info("PromptResponsePriority is now '%s'",
@@ -126,14 +108,20 @@ public class PromptResponseListener implements Listener {
         listAllRegisteredListeners(plugin);
     }
 
-    private static EventPriority getCurrentEventPriority(CommandPrompter plugin) {
+    private static RegisteredListener getRegisteredListener(CommandPrompter plugin) {
         for (RegisteredListener registeredListener : AsyncPlayerChatEvent.getHandlerList().getRegisteredListeners()) {
-            if (registeredListener.getPlugin().getName().equals(plugin.getName()))
-                return registeredListener.getPriority();
+            if (registeredListener.getListener() instanceof PromptResponseListener &&
+                    registeredListener.getPlugin().getName().equals(plugin.getName()))
+                return registeredListener;
         }
         return null;
     }
 
+    private static EventPriority getCurrentEventPriority(CommandPrompter plugin) {
+        RegisteredListener registeredListener = getRegisteredListener(plugin);
+        return registeredListener == null ? null : registeredListener.getPriority();
+    }
+
     private static void listAllRegisteredListeners(CommandPrompter plugin) {
         PluginLogger logger = plugin.getPluginLogger();
         logger.debug("Registered Listeners: ");
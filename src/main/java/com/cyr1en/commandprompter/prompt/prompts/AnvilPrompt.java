@@ -26,19 +26,13 @@ package com.cyr1en.commandprompter.prompt.prompts;
 
 import com.cyr1en.commandprompter.CommandPrompter;
 import com.cyr1en.commandprompter.prompt.PromptContext;
-import com.cyr1en.commandprompter.util.Util;
 import net.wesjd.anvilgui.AnvilGUI;
 import org.bukkit.ChatColor;
-import org.bukkit.Material;
-import org.bukkit.enchantments.Enchantment;
 import org.bukkit.entity.Player;
-import org.bukkit.inventory.ItemFlag;
 import org.bukkit.inventory.ItemStack;
-import org.bukkit.inventory.meta.ItemMeta;
 
 import java.util.Arrays;
 import java.util.List;
-import java.util.Objects;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.stream.Collectors;
 
@@ -88,19 +82,8 @@ public class AnvilPrompt extends AbstractPrompt {
     }
 
     private ItemStack makeItem(List<String> parts) {
-        ItemStack item = new ItemStack(Util.getCheckedMaterial(getPlugin().getPromptConfig().anvilItem, Material.PAPER));
-        ItemMeta meta = item.getItemMeta();
-        getPlugin().getPluginLogger().debug("ItemMeta: " + meta);
-        if (getPlugin().getPromptConfig().anvilEnchanted) {
-            Objects.requireNonNull(meta).addEnchant(Enchantment.LURE, 1, true);
-            meta.addItemFlags(ItemFlag.HIDE_ENCHANTS);
-        }
-        Objects.requireNonNull(meta).addItemFlags(ItemFlag.HIDE_ATTRIBUTES);
-        meta.setDisplayName(parts.get(0));
-
-        if (parts.size() > 1)
-            meta.setLore(parts.subList(1, parts.size()).stream().map(this::color).collect(Collectors.toList()));
-        item.setItemMeta(meta);
-        return item;
+        List<String> lore = parts.size() > 1 ?
+                parts.subList(1, parts.size()).stream().map(this::color).collect(Collectors.toList()) : null;
+        return getPlugin().getItemTemplates().anvilItem(parts.get(0), lore);
     }
 }
@@ -26,15 +26,9 @@ package com.cyr1en.commandprompter.prompt.prompts;
 
 import com.cyr1en.commandprompter.CommandPrompter;
 import com.cyr1en.commandprompter.prompt.PromptContext;
+import com.cyr1en.commandprompter.prompt.ui.ChatPromptCache;
 import net.md_5.bungee.api.chat.BaseComponent;
-import net.md_5.bungee.api.chat.ClickEvent;
-import net.md_5.bungee.api.chat.ComponentBuilder;
-import net.md_5.bungee.api.chat.HoverEvent;
-import net.md_5.bungee.api.chat.hover.content.Text;
-
-import java.util.Arrays;
-import java.util.List;
-import java.util.stream.Collectors;
+import org.bukkit.command.CommandSender;
 
 public class ChatPrompt extends AbstractPrompt {
 
@@ -43,29 +37,12 @@ public class ChatPrompt extends AbstractPrompt {
     }
 
     public void sendPrompt() {
-        List<String> parts = Arrays.stream(getPrompt().split("\\{br}")).map(String::trim).collect(Collectors.toList());
-        String prefix = getPlugin().getConfiguration().promptPrefix;
-        parts.forEach(part -> getContext().getSender().sendMessage(color(prefix + part)));
-        boolean isSendCancel = getPlugin().getPromptConfig().sendCancelText;
-        getPlugin().getPluginLogger().debug("Send Cancel: " + isSendCancel);
-        if (isSendCancel)
-            sendCancelText();
-    }
-
-    private void sendCancelText() {
-        try {
-            Class.forName("org.spigotmc.SpigotConfig");
-            String cancelMessage = getPlugin().getPromptConfig().textCancelMessage;
-            String hoverMessage = getPlugin().getPromptConfig().textCancelHoverMessage;
-            String prefix = getPlugin().getConfiguration().promptPrefix;
-            BaseComponent[] component = new ComponentBuilder(color(prefix + cancelMessage))
-                    .event(new ClickEvent(ClickEvent.Action.RUN_COMMAND, "/commandprompter cancel"))
-                    .event(new HoverEvent(HoverEvent.Action.SHOW_TEXT, new Text(color(hoverMessage))))
-                    .create();
-            getContext().getSender().spigot().sendMessage(component);
-        } catch (ClassNotFoundException e) {
-            getPlugin().getPluginLogger().debug("ChatAPI not available, can't send clickable cancel");
-        }
-
+        ChatPromptCache cache = getPlugin().getChatPromptCache();
+        CommandSender sender = getContext().getSender();
+        sender.sendMessage(cache.getLines(getPrompt()));
+        BaseComponent[] cancelComponent = cache.getCancelComponent();
+        getPlugin().getPluginLogger().debug("Send Cancel: " + (cancelComponent != null));
+        if (cancelComponent != null)
+            sender.spigot().sendMessage(cancelComponent);
     }
 }
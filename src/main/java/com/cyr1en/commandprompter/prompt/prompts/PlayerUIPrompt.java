@@ -26,68 +26,146 @@ package com.cyr1en.commandprompter.prompt.prompts;
 
 import com.cyr1en.commandprompter.CommandPrompter;
 import com.cyr1en.commandprompter.prompt.PromptContext;
+import com.cyr1en.commandprompter.prompt.PromptQueue;
 import com.cyr1en.commandprompter.prompt.ui.HeadCache;
+import com.cyr1en.commandprompter.prompt.ui.HeadPages;
 import com.cyr1en.commandprompter.prompt.ui.inventory.ControlPane;
-import com.cyr1en.commandprompter.util.Util;
+import com.cyr1en.commandprompter.prompt.ui.inventory.LazyPaginatedPane;
+import com.github.stefvanschie.inventoryframework.gui.GuiItem;
 import com.github.stefvanschie.inventoryframework.gui.type.ChestGui;
 import com.github.stefvanschie.inventoryframework.pane.PaginatedPane;
-import org.bukkit.entity.HumanEntity;
+import net.wesjd.anvilgui.AnvilGUI;
+import org.bukkit.Bukkit;
+import org.bukkit.Material;
 import org.bukkit.entity.Player;
 import org.bukkit.event.inventory.InventoryClickEvent;
 import org.bukkit.inventory.ItemStack;
 
 import java.util.Arrays;
 import java.util.List;
-import java.util.Objects;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 public class PlayerUIPrompt extends AbstractPrompt {
 
     private final int size;
-    private final ChestGui gui;
+    private final String title;
     private final HeadCache headCache;
+    private ChestGui gui;
 
     public PlayerUIPrompt(CommandPrompter plugin, PromptContext context, String prompt) {
         super(plugin, context, prompt);
         int cfgSize = getPlugin().getPromptConfig().playerUISize;
         List<String> parts = Arrays.asList(getPrompt().split("\\{br}"));
         size = Math.max((cfgSize - (cfgSize % 9)) / 9, 2);
-        gui = new ChestGui(size, color(parts.get(0)));
+        title = color(parts.get(0));
         this.headCache = plugin.getHeadCache();
     }
 
     @Override
     public void sendPrompt() {
-        gui.setOnClose(e -> getPromptManager().cancel(getContext().getSender()));
-        Player p = (Player) getContext().getSender();
+        open(null);
+    }
 
-        PaginatedPane skullPane = new PaginatedPane(0, 0, 9, size - 1);
+    /**
+     * Open the player UI.
+     *
+     * @param filter only show players whose name starts with this, or null to show everyone.
+     */
+    private void open(String filter) {
+        gui = new ChestGui(size, title);
+        gui.setOnClose(e -> {
+            if (isCurrent())
+                getPromptManager().cancel(getContext().getSender());
+        });
+        Player p = (Player) getContext().getSender();
 
-        boolean isSorted = getPlugin().getPromptConfig().sorted;
+        int pageSize = 9 * (size - 1);
         boolean isPerWorld = getPlugin().getPromptConfig().isPerWorld;
-        List<ItemStack> skulls = isPerWorld ?
-                (isSorted ?
-                        headCache.getHeadsSortedFor(p.getWorld().getPlayers()) :
-                        headCache.getHeadsFor(p.getWorld().getPlayers())) :
-                (isSorted ?
-                        headCache.getHeadsSorted() :
-                        headCache.getHeads());
+        HeadPages pages;
+        if (filter == null)
+            pages = isPerWorld ? headCache.getPagesFor(p.getWorld(), pageSize) : headCache.getPages(pageSize);
+        else
+            pages = isPerWorld ? headCache.searchPagesFor(p.getWorld(), filter, pageSize) :
+                    headCache.searchPages(filter, pageSize);
 
-        skullPane.populateWithItemStacks(skulls);
-        skullPane.setOnClick(this::processClick);
+        PaginatedPane skullPane = new LazyPaginatedPane(0, 0, 9, size - 1, pages.getPageCount(),
+                (page, i) -> {
+                    ItemStack[] skulls = pages.getPage(i);
+                    for (int j = 0; j < skulls.length; j++) {
+                        UUID owner = pages.getOwner(i, j);
+                        String name = pages.getName(i, j);
+                        // Pages are shared with other viewers, GuiItem tags its item so it needs its own copy.
+                        page.addItem(new GuiItem(skulls[j].clone(), e -> processClick(e, owner, name)));
+                    }
+                }, true);
+        skullPane.setOnClick(e -> e.setCancelled(true));
 
         gui.addPane(skullPane);
-        gui.addPane(new ControlPane(getPlugin(), skullPane, gui, getContext(), size));
+        gui.addPane(new ControlPane(getPlugin(), skullPane, gui, getContext(), size, this::openSearch));
+
+        gui.show(p);
+    }
+
+    /**
+     * Replace the player UI with an anvil where the player can type a name prefix to filter by.
+     */
+    private void openSearch() {
+        Player p = (Player) getContext().getSender();
+        gui.setOnClose(null);
+        p.closeInventory();
+
+        String placeholder = color(getPlugin().getPromptConfig().searchText);
+        String strippedPlaceholder = stripColor(placeholder).trim();
+        AtomicBoolean isComplete = new AtomicBoolean(false);
+        new AnvilGUI.Builder()
+                .onComplete((player, text) -> {
+                    isComplete.set(true);
+                    String filter = stripColor(text).trim();
+                    // Confirming the placeholder untouched means no filter at all.
+                    boolean noFilter = filter.isEmpty() || filter.equalsIgnoreCase(strippedPlaceholder);
+                    Bukkit.getScheduler().runTask(getPlugin(), () -> reopen(noFilter ? null : filter));
+                    return AnvilGUI.Response.close();
+                })
+                .onClose(player -> {
+                    if (isComplete.get()) return;
+                    Bukkit.getScheduler().runTask(getPlugin(), () -> reopen(null));
+                })
+                .text(placeholder)
+                .itemLeft(new ItemStack(Material.PAPER))
+                .plugin(getPlugin())
+                .open(p);
+    }
+
+    /**
+     * Open the player UI again after the search anvil closed, unless the session moved on in
+     * the meantime. If the player went offline, the prompt is cancelled instead.
+     *
+     * @param filter only show players whose name starts with this, or null to show everyone.
+     */
+    private void reopen(String filter) {
+        if (!isCurrent()) return;
+        if (!((Player) getContext().getSender()).isOnline()) {
+            getPromptManager().cancel(getContext().getSender());
+            return;
+        }
+        open(filter);
+    }
 
-        gui.show((HumanEntity) getContext().getSender());
+    /**
+     * @return true if this is still the prompt the player has to answer.
+     */
+    private boolean isCurrent() {
+        PromptQueue queue = getPromptManager().getPromptRegistry().get(getContext().getSender());
+        return queue != null && queue.peek() == this;
     }
 
-    private void processClick(InventoryClickEvent e) {
+    private void processClick(InventoryClickEvent e, UUID owner, String name) {
         e.setCancelled(true);
-        if (Objects.isNull(e.getCurrentItem())) return;
-        String name = Objects.requireNonNull(Objects.requireNonNull
-                (e.getCurrentItem()).getItemMeta()).getDisplayName();
-        name = Util.stripColor(name);
-        PromptContext ctx = new PromptContext(null, (Player) getContext().getSender(), name);
+        // Resolve the head by its owner, the name stored in the page is only used once they're offline.
+        Player target = Bukkit.getPlayer(owner);
+        String answer = target != null ? target.getName() : name;
+        PromptContext ctx = new PromptContext(null, (Player) getContext().getSender(), answer);
         getPlugin().getPromptManager().processPrompt(ctx);
         gui.setOnClose(null);
         ((Player) getContext().getSender()).closeInventory();
@@ -1,43 +1,76 @@
 package com.cyr1en.commandprompter.prompt.prompts;
 
 import com.cyr1en.commandprompter.CommandPrompter;
+import com.cyr1en.commandprompter.PluginLogger;
 import com.cyr1en.commandprompter.prompt.PromptContext;
 import com.cyr1en.commandprompter.prompt.ui.SignMenuFactory;
-import com.cyr1en.kiso.utils.FastStrings;
 import org.bukkit.Bukkit;
 import org.bukkit.entity.Player;
 
 import java.util.Arrays;
 import java.util.List;
-import java.util.stream.Collectors;
 
 public class SignPrompt extends AbstractPrompt {
 
-    private static final String MULTI_ARG_PATTERN_EMPTY = "[ -~]+:";
-    private static final String MULTI_ARG_PATTERN_FILLED = MULTI_ARG_PATTERN_EMPTY + "[ -~]+";
-
     private final SignMenuFactory signMenuFactory;
-    private boolean isMultiArg;
-
+    private final PluginLogger logger;
+
+    private final List<String> layout;
+    private final String[] cleanedLayout;
+    private final String[] labels;
+    private final boolean isMultiArg;
+    private final StringBuilder answerBuffer;
+
+    /**
+     * Constructs a sign prompt and computes its layout.
+     *
+     * <p>The lines of the sign, whether it's a multi-arg sign and the label of every
+     * multi-arg line are all computed here once, so that parsing an answer is just a
+     * couple of string comparisons.</p>
+     */
     public SignPrompt(CommandPrompter plugin, PromptContext context, String prompt) {
-        super(plugin, context, prompt);
-        this.signMenuFactory = new SignMenuFactory(plugin);
-        isMultiArg = false;
+        this(plugin, context, prompt, plugin.getSignMenuFactory(), plugin.getPluginLogger());
     }
 
-    @Override
-    public void sendPrompt() {
+    /**
+     * Constructs a sign prompt that opens its sign through the given factory.
+     *
+     * @param signMenuFactory factory to open the sign with.
+     * @param logger          logger for debug messages.
+     */
+    public SignPrompt(CommandPrompter plugin, PromptContext context, String prompt, SignMenuFactory signMenuFactory,
+                      PluginLogger logger) {
+        super(plugin, context, prompt);
+        this.signMenuFactory = signMenuFactory;
+        this.logger = logger;
+
         List<String> parts = Arrays.asList(getPrompt().split("\\{br}"));
-        checkMultiArg(parts);
-        getPlugin().getPluginLogger().debug("Is Multi-Arg: " + isMultiArg);
+        boolean multiArg = false;
+        for (String part : parts)
+            multiArg |= isLabel(part.trim());
+        this.isMultiArg = multiArg;
         if (parts.size() > 3 && !isMultiArg)
             parts = parts.subList(0, 2);
         else if (parts.size() > 4)
             parts = parts.subList(0, 3);
+        this.layout = parts;
+
+        this.cleanedLayout = new String[layout.size()];
+        this.labels = new String[layout.size()];
+        for (int i = 0; i < layout.size(); i++) {
+            cleanedLayout[i] = stripColor(layout.get(i));
+            String label = cleanedLayout[i].trim();
+            labels[i] = isLabel(label) ? label : null;
+        }
+        this.answerBuffer = new StringBuilder();
+    }
 
-        List<String> finalParts = parts;
-        SignMenuFactory.Menu menu = signMenuFactory.newMenu(parts)
-                .response((p, s) -> process(finalParts, p, s));
+    @Override
+    public void sendPrompt() {
+        logger.debug("Is Multi-Arg: " + isMultiArg);
+        SignMenuFactory.Menu menu = signMenuFactory.newMenu(layout)
+                .parser(this::parse)
+                .response(this::process);
         Bukkit.getScheduler().runTaskLater(getPlugin(), () -> {
             menu.open((Player) getContext().getSender());
             if (isMultiArg)
@@ -49,22 +82,73 @@ public class SignPrompt extends AbstractPrompt {
         }, 2L);
     }
 
-    private void checkMultiArg(List<String> parts) {
-        isMultiArg = parts.stream().map(String::trim).anyMatch(s -> s.matches(MULTI_ARG_PATTERN_EMPTY));
+    /**
+     * Checks if a line is a multi-arg label, i.e. printable ASCII that ends with a colon.
+     */
+    private static boolean isLabel(String line) {
+        int last = line.length() - 1;
+        if (last < 1 || line.charAt(last) != ':') return false;
+        return isPrintableAscii(line, 0, last);
     }
 
-    private boolean process(List<String> parts, Player p, String[] s) {
-        List<String> cleanedParts = parts.stream().map(this::stripColor).collect(Collectors.toList());
-        getPlugin().getPluginLogger().debug("Sign Strings: " + Arrays.toString(s));
+    private static boolean isPrintableAscii(String str, int from, int to) {
+        for (int i = from; i < to; i++) {
+            char c = str.charAt(i);
+            if (c < ' ' || c > '~') return false;
+        }
+        return true;
+    }
+
+    /**
+     * Turn the lines of the sign into an answer.
+     *
+     * <p>This runs on the netty thread, so it must not call into Bukkit.</p>
+     */
+    private String parse(String[] lines) {
+        StringBuilder answer = answerBuffer;
+        answer.setLength(0);
+        for (int i = 0; i < lines.length; i++) {
+            String line = lines[i];
+            if (line.trim().isEmpty() || isLayoutLine(line)) continue;
+            String arg = isMultiArg ? extractArg(line, i < labels.length ? labels[i] : null) : line;
+            if (arg == null) continue;
+            if (answer.length() > 0) answer.append(' ');
+            answer.append(arg);
+        }
+        return answer.toString();
+    }
+
+    private boolean isLayoutLine(String line) {
+        for (String cleaned : cleanedLayout)
+            if (cleaned.equals(line)) return true;
+        return false;
+    }
 
-        String response = isMultiArg ?
-                FastStrings.join(Arrays.stream(s).filter(str -> !str.trim().isEmpty() && !cleanedParts.contains(str))
-                        .filter(str -> str.matches(MULTI_ARG_PATTERN_FILLED))
-                        .map(str -> str.replaceAll(MULTI_ARG_PATTERN_EMPTY, "").trim()).toArray(), " ") :
-                FastStrings.join(Arrays.stream(s)
-                        .filter(str -> !cleanedParts.contains(str) && !str.trim().isEmpty()).toArray(), " ");
+    /**
+     * Extract the argument from a filled in multi-arg line.
+     *
+     * <p>If the line still starts with the label that was put on it, the argument is
+     * whatever comes after the label. Otherwise, everything up to the last colon is
+     * considered to be the label.</p>
+     *
+     * @return the argument, or null if the line was not filled in.
+     */
+    private String extractArg(String line, String label) {
+        if (!isPrintableAscii(line, 0, line.length())) return null;
+        int start;
+        if (label != null && line.startsWith(label))
+            start = label.length();
+        else {
+            int colon = line.lastIndexOf(':');
+            if (colon < 1) return null;
+            start = colon + 1;
+        }
+        String arg = line.substring(start).trim();
+        return arg.isEmpty() ? null : arg;
+    }
 
-        getPlugin().getPluginLogger().debug("Response: " + response);
+    private boolean process(Player p, String response) {
+        logger.debug("Response: " + response);
 
         // If the sign contains the same message as the prompt
         // we'll consider the command completion cancelled.
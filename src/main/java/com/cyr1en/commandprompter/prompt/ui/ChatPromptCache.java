@@ -0,0 +1,93 @@
+package com.cyr1en.commandprompter.prompt.ui;
+
+import com.cyr1en.commandprompter.config.CommandPrompterConfig;
+import com.cyr1en.commandprompter.config.PromptConfig;
+import com.cyr1en.commandprompter.util.Util;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import net.md_5.bungee.api.chat.BaseComponent;
+import net.md_5.bungee.api.chat.ClickEvent;
+import net.md_5.bungee.api.chat.ComponentBuilder;
+import net.md_5.bungee.api.chat.HoverEvent;
+import net.md_5.bungee.api.chat.hover.content.Text;
+
+import java.util.regex.Pattern;
+
+/**
+ * Cache of pre-rendered chat prompt messages.
+ *
+ * <p>The coloured, prefixed lines of a chat prompt are rendered once per prompt text,
+ * and the clickable cancel message is built once. A new instance should be created
+ * whenever the configs are reloaded, which drops everything that was rendered with
+ * the old config.</p>
+ */
+public class ChatPromptCache {
+
+    private static final Pattern LINE_BREAK = Pattern.compile("\\{br}");
+    private static final int MAXIMUM_SIZE = 256;
+
+    /**
+     * Whether the server has Spigot's chat component API. Probed once.
+     */
+    private static final boolean SPIGOT_CHAT = probeSpigotChat();
+
+    private final String prefix;
+    private final BaseComponent[] cancelComponent;
+    private final Cache<String, String[]> renderedLines;
+
+    public ChatPromptCache(CommandPrompterConfig config, PromptConfig promptConfig) {
+        this.prefix = config.promptPrefix;
+        this.cancelComponent = promptConfig.sendCancelText && SPIGOT_CHAT ?
+                makeCancelComponent(promptConfig) : null;
+        this.renderedLines = CacheBuilder.newBuilder().maximumSize(MAXIMUM_SIZE).build();
+    }
+
+    private static boolean probeSpigotChat() {
+        try {
+            Class.forName("org.spigotmc.SpigotConfig");
+            return true;
+        } catch (ClassNotFoundException e) {
+            return false;
+        }
+    }
+
+    private BaseComponent[] makeCancelComponent(PromptConfig promptConfig) {
+        return new ComponentBuilder(Util.color(prefix + promptConfig.textCancelMessage))
+                .event(new ClickEvent(ClickEvent.Action.RUN_COMMAND, "/commandprompter cancel"))
+                .event(new HoverEvent(HoverEvent.Action.SHOW_TEXT, new Text(Util.color(promptConfig.textCancelHoverMessage))))
+                .create();
+    }
+
+    /**
+     * Get the coloured and prefixed lines of a chat prompt.
+     *
+     * <p>The returned array is shared, do not modify it.</p>
+     *
+     * @param prompt text of the prompt.
+     * @return lines to send.
+     */
+    public String[] getLines(String prompt) {
+        return renderedLines.asMap().computeIfAbsent(prompt, this::render);
+    }
+
+    private String[] render(String prompt) {
+        String[] parts = LINE_BREAK.split(prompt);
+        String[] lines = new String[parts.length];
+        for (int i = 0; i < parts.length; i++)
+            lines[i] = Util.color(prefix + parts[i].trim());
+        return lines;
+    }
+
+    /**
+     * Get the clickable cancel message.
+     *
+     * @return the cancel message, or null if it's disabled or the server doesn't support it.
+     */
+    public BaseComponent[] getCancelComponent() {
+        return cancelComponent;
+    }
+
+    public static boolean isSpigotChatAvailable() {
+        return SPIGOT_CHAT;
+    }
+}
@@ -4,6 +4,8 @@ import com.cyr1en.commandprompter.CommandPrompter;
 import com.cyr1en.commandprompter.PluginLogger;
 import com.cyr1en.commandprompter.hook.Hook;
 import com.cyr1en.commandprompter.hook.hooks.SuperVanishHook;
+import com.cyr1en.commandprompter.listener.EventRegistrar;
+import com.cyr1en.commandprompter.metrics.MetricsRegistry;
 import com.cyr1en.commandprompter.util.Util;
 import com.google.common.cache.CacheBuilder;
 import com.google.common.cache.CacheLoader;
@@ -11,32 +13,70 @@ import com.google.common.cache.LoadingCache;
 import com.google.common.collect.ImmutableMap;
 import org.bukkit.Bukkit;
 import org.bukkit.Material;
+import org.bukkit.World;
 import org.bukkit.entity.Player;
 import org.bukkit.event.EventHandler;
 import org.bukkit.event.Listener;
-import org.bukkit.event.player.PlayerLoginEvent;
+import org.bukkit.event.player.PlayerChangedWorldEvent;
+import org.bukkit.event.player.PlayerJoinEvent;
 import org.bukkit.event.player.PlayerQuitEvent;
 import org.bukkit.inventory.ItemStack;
 import org.bukkit.inventory.meta.SkullMeta;
+import org.bukkit.scheduler.BukkitTask;
 import org.jetbrains.annotations.NotNull;
 
 import java.util.*;
-import java.util.concurrent.ExecutionException;
+import java.util.concurrent.*;
 import java.util.concurrent.atomic.AtomicBoolean;
-import java.util.stream.Collectors;
 
+/**
+ * Cache of player skulls used by the player UI prompt.
+ *
+ * <p>Skulls are warmed up in two steps. Anything that's safe to do off the main thread
+ * (i.e. formatting the display name) is done on a small bounded executor. The prepared
+ * requests are then queued, and the actual {@link SkullMeta} is built on the main thread,
+ * at most PlayerUI.Warm-Up-Per-Tick skulls per tick.</p>
+ */
 public class HeadCache implements Listener {
 
+    private static final int WARM_UP_QUEUE_CAPACITY = 256;
+
     private LoadingCache<Player, Optional<ItemStack>> HEAD_CACHE = null;
 
     private final CommandPrompter plugin;
-    private final String format;
+    private volatile String format;
+    private final Map<UUID, HeadRoster> worldRosters;
+    private HeadRoster roster;
+
+    private final ExecutorService warmUpExecutor;
+    private final Queue<HeadRequest> warmUpQueue;
+    private final Set<UUID> pendingWarmUps;
+    private final BukkitTask warmUpTask;
+    private volatile int generation;
 
     public HeadCache(CommandPrompter plugin) {
         this.plugin = plugin;
+        this.format = plugin.getPromptConfig().skullNameFormat;
+        this.worldRosters = new HashMap<>();
+        this.warmUpExecutor = new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS,
+                new LinkedBlockingQueue<>(WARM_UP_QUEUE_CAPACITY), r -> {
+            Thread thread = new Thread(r, "CommandPrompter-HeadCache");
+            thread.setDaemon(true);
+            return thread;
+        }, new ThreadPoolExecutor.CallerRunsPolicy());
+        this.warmUpQueue = new ConcurrentLinkedQueue<>();
+        this.pendingWarmUps = ConcurrentHashMap.newKeySet();
+        setMaximumSize(plugin.getPromptConfig().cacheSize);
+        EventRegistrar.register(this, plugin);
+        this.warmUpTask = Bukkit.getScheduler().runTaskTimer(plugin, this::drainWarmUpQueue, 1L, 1L);
+    }
+
+    /**
+     * Rebuild the cache with the current skull name format and cache size.
+     */
+    public void reload() {
         this.format = plugin.getPromptConfig().skullNameFormat;
         setMaximumSize(plugin.getPromptConfig().cacheSize);
-        Bukkit.getPluginManager().registerEvents(this, plugin);
     }
 
     public void setMaximumSize(int size) {
@@ -47,18 +87,35 @@ public class HeadCache implements Listener {
                     public @NotNull Optional<ItemStack> load(@NotNull Player key) {
                         if (!key.isOnline())
                             return Optional.empty();
-                        ItemStack skull = new ItemStack(Material.PLAYER_HEAD);
-                        SkullMeta skullMeta = makeSkullMeta(key, plugin.getPluginLogger());
-                        skull.setItemMeta(skullMeta);
-                        return Optional.of(skull);
+                        return Optional.of(makeSkull(key, makeDisplayName(key)));
                     }
                 });
+        // Queued warm-ups carry display names of the old format, drop them so everyone is warmed up again.
+        // One that is still being prepared is dropped when drained, by its generation.
+        generation++;
+        warmUpQueue.clear();
+        pendingWarmUps.clear();
+        resetRosters();
         for (Player p : Bukkit.getOnlinePlayers()) {
             onPlayerJoin(p);
         }
     }
 
+    /**
+     * Get the head of a player, building it if it's not cached yet.
+     *
+     * <p>Must be called from the main thread.</p>
+     *
+     * @param player player to get the head for.
+     * @return head of the player, or empty if the player is offline.
+     */
     public Optional<ItemStack> getHeadFor(Player player) {
+        Optional<ItemStack> head = HEAD_CACHE.getIfPresent(player);
+        if (head != null) {
+            plugin.getMetrics().increment(MetricsRegistry.Counter.HEAD_CACHE_HITS);
+            return head;
+        }
+        plugin.getMetrics().increment(MetricsRegistry.Counter.HEAD_CACHE_MISSES);
         return HEAD_CACHE.getUnchecked(player);
     }
 
@@ -74,15 +131,34 @@ public class HeadCache implements Listener {
         }
     }
 
-    private List<ItemStack> sortHeads(ArrayList<ItemStack> headList) {
-        @SuppressWarnings("unchecked")
-        List<ItemStack> copy = (ArrayList<ItemStack>) headList.clone();
-        copy.sort((s1, s2) -> {
-            String n1 = Util.stripColor(Objects.requireNonNull(s1.getItemMeta()).getDisplayName());
-            String n2 = Util.stripColor(Objects.requireNonNull(s2.getItemMeta()).getDisplayName());
-            return n1.compareToIgnoreCase(n2);
-        });
-        return copy;
+    /**
+     * Clear all rosters and re-read the sorting setting from the config.
+     */
+    private void resetRosters() {
+        this.roster = new HeadRoster(plugin.getPromptConfig().sorted, this::makeSortName);
+        this.worldRosters.clear();
+    }
+
+    private HeadRoster getRosterFor(World world) {
+        return worldRosters.computeIfAbsent(world.getUID(), uid -> new HeadRoster(roster.isSorted(), this::makeSortName));
+    }
+
+    private void addToRosters(Player player) {
+        roster.add(player);
+        getRosterFor(player.getWorld()).add(player);
+    }
+
+    private void removeFromRosters(Player player, World world) {
+        roster.remove(player);
+        removeFromWorldRoster(player, world);
+    }
+
+    private void removeFromWorldRoster(Player player, World world) {
+        HeadRoster worldRoster = worldRosters.get(world.getUID());
+        if (worldRoster == null) return;
+        worldRoster.remove(player);
+        if (worldRoster.isEmpty())
+            worldRosters.remove(world.getUID());
     }
 
     public List<ItemStack> getHeadsFor(List<Player> players) {
@@ -94,47 +170,195 @@ public class HeadCache implements Listener {
         return result;
     }
 
-    public List<ItemStack> getHeadsSortedFor(List<Player> players) {
-        return sortHeads((ArrayList<ItemStack>) getHeadsFor(players));
+    /**
+     * Get the heads of all visible players in a world.
+     *
+     * <p>The order of the heads follows the roster of that world, which is
+     * sorted if PlayerUI.Sorted is enabled.</p>
+     *
+     * @param world world to get the heads for.
+     * @return heads of the players in the world.
+     */
+    public List<ItemStack> getHeadsFor(World world) {
+        HeadRoster worldRoster = worldRosters.get(world.getUID());
+        return worldRoster == null ? Collections.emptyList() : getHeadsFor(worldRoster.getPlayers());
     }
 
-    public List<ItemStack> getHeadsSorted() {
-        List<Player> keys = HEAD_CACHE.asMap().entrySet().stream()
-                .filter(entry -> entry.getValue().isPresent())
-                .map(Map.Entry::getKey).collect(Collectors.toList());
-        return sortHeads((ArrayList<ItemStack>) getHeadsFor(keys));
+    /**
+     * Get the heads of all visible online players.
+     *
+     * <p>The order of the heads is sorted if PlayerUI.Sorted is enabled.</p>
+     *
+     * @return heads of all visible online players.
+     */
+    public List<ItemStack> getHeads() {
+        return getHeadsFor(roster.getPlayers());
     }
 
-    public List<ItemStack> getHeads() {
-        return HEAD_CACHE.asMap().values().stream()
-                .filter(Optional::isPresent)
-                .map(Optional::get).collect(Collectors.toList());
+    /**
+     * Get the shared pages of heads for all visible online players.
+     *
+     * @param pageSize number of heads per page.
+     * @return pages of heads.
+     * @see HeadPages
+     */
+    public HeadPages getPages(int pageSize) {
+        return getPagesFor(roster, pageSize);
+    }
+
+    /**
+     * Get the shared pages of heads for all visible players in a world.
+     *
+     * @param world    world to get the pages for.
+     * @param pageSize number of heads per page.
+     * @return pages of heads.
+     * @see HeadPages
+     */
+    public HeadPages getPagesFor(World world, int pageSize) {
+        HeadRoster worldRoster = worldRosters.get(world.getUID());
+        if (worldRoster == null) return buildPages(-1, pageSize, Collections.emptyList());
+        return getPagesFor(worldRoster, pageSize);
+    }
+
+    /**
+     * Get pages of heads for all visible online players whose name starts with a prefix.
+     *
+     * <p>Matches are read straight from the prefix index of the roster. Unlike
+     * {@link #getPages(int)}, the result is not shared.</p>
+     *
+     * @param prefix   name prefix to search for.
+     * @param pageSize number of heads per page.
+     * @return pages of matching heads.
+     */
+    public HeadPages searchPages(String prefix, int pageSize) {
+        return buildPages(-1, pageSize, roster.search(prefix));
+    }
+
+    /**
+     * Get pages of heads for all visible players in a world whose name starts with a prefix.
+     *
+     * @param world    world to search in.
+     * @param prefix   name prefix to search for.
+     * @param pageSize number of heads per page.
+     * @return pages of matching heads.
+     * @see #searchPages(String, int)
+     */
+    public HeadPages searchPagesFor(World world, String prefix, int pageSize) {
+        HeadRoster worldRoster = worldRosters.get(world.getUID());
+        if (worldRoster == null) return buildPages(-1, pageSize, Collections.emptyList());
+        return buildPages(-1, pageSize, worldRoster.search(prefix));
+    }
+
+    /**
+     * Get the pages of a roster, rebuilding them only if the roster changed
+     * since they were last built.
+     */
+    private HeadPages getPagesFor(HeadRoster headRoster, int pageSize) {
+        long version = headRoster.getVersion();
+        HeadPages pages = headRoster.getPages();
+        if (pages != null && pages.isCurrent(version, pageSize))
+            return pages;
+        plugin.getPluginLogger().debug("Rebuilding head pages (version: %s)", version);
+        pages = buildPages(version, pageSize, headRoster.getPlayers());
+        headRoster.setPages(pages);
+        return pages;
     }
 
-    private boolean checkNameFromItemStack(ItemStack is, String pName) {
-        if (Objects.isNull(is) || Objects.isNull(is.getItemMeta())) return false;
-        return Util.stripColor(is.getItemMeta().getDisplayName()).equals(pName);
+    private HeadPages buildPages(long version, int pageSize, List<Player> players) {
+        List<ItemStack> heads = new ArrayList<>(players.size());
+        List<String> names = new ArrayList<>(players.size());
+        List<UUID> owners = new ArrayList<>(players.size());
+        for (Player player : players) {
+            Optional<ItemStack> head = getHeadFor(player);
+            if (!head.isPresent()) continue;
+            heads.add(head.get());
+            names.add(player.getName());
+            owners.add(player.getUniqueId());
+        }
+        return HeadPages.of(version, pageSize, heads, names, owners);
+    }
+
+    private String makeDisplayName(Player owningPlayer) {
+        return Util.color(String.format(format, owningPlayer.getName()));
     }
 
+    /**
+     * Sorted rosters are ordered by the skull's display name without colours, like the heads
+     * are shown. Rosters are reset whenever the format changes, so the order stays consistent.
+     */
+    private String makeSortName(Player owningPlayer) {
+        return Util.stripColor(makeDisplayName(owningPlayer));
+    }
+
+    private ItemStack makeSkull(Player owningPlayer, String displayName) {
+        long start = System.nanoTime();
+        ItemStack skull = new ItemStack(Material.PLAYER_HEAD);
+        skull.setItemMeta(makeSkullMeta(owningPlayer, displayName, plugin.getPluginLogger()));
+        plugin.getMetrics().record(MetricsRegistry.Latency.HEAD_LOAD, System.nanoTime() - start);
+        return skull;
+    }
 
-    private SkullMeta makeSkullMeta(Player owningPlayer, PluginLogger logger) {
+    private SkullMeta makeSkullMeta(Player owningPlayer, String displayName, PluginLogger logger) {
         SkullMeta skullMeta = (SkullMeta) Bukkit.getItemFactory().getItemMeta(Material.PLAYER_HEAD);
         Objects.requireNonNull(skullMeta).setOwningPlayer(owningPlayer);
-        String name = String.format(format, owningPlayer.getName());
-        skullMeta.setDisplayName(Util.color(name));
+        skullMeta.setDisplayName(displayName);
         logger.debug("Skull Meta: {%s. %s}", skullMeta.getDisplayName(), skullMeta.getOwningPlayer());
         return skullMeta;
     }
 
+    /**
+     * Queue a player's skull to be warmed up.
+     *
+     * <p>The display name is prepared on the warm-up executor, the skull itself
+     * is built later on the main thread by {@link #drainWarmUpQueue()}.</p>
+     *
+     * @param player player to warm up the skull for.
+     */
+    private void warmUp(Player player) {
+        if (HEAD_CACHE.getIfPresent(player) != null) return;
+        if (!pendingWarmUps.add(player.getUniqueId())) return;
+        String name = player.getName();
+        String nameFormat = format;
+        int requestGeneration = generation;
+        warmUpExecutor.execute(() -> warmUpQueue.add(new HeadRequest(player,
+                Util.color(String.format(nameFormat, name)), requestGeneration)));
+    }
+
+    /**
+     * Build the skulls of queued warm-up requests, without going over the per-tick budget.
+     */
+    private void drainWarmUpQueue() {
+        int budget = Math.max(plugin.getPromptConfig().warmUpPerTick, 1);
+        HeadRequest request;
+        while (budget > 0 && (request = warmUpQueue.poll()) != null) {
+            Player player = request.player;
+            if (request.generation != generation) continue;
+            pendingWarmUps.remove(player.getUniqueId());
+            if (!player.isOnline() || HEAD_CACHE.getIfPresent(player) != null) continue;
+            HEAD_CACHE.put(player, Optional.of(makeSkull(player, request.displayName)));
+            budget--;
+        }
+    }
+
+    /**
+     * Stop warming up skulls. Called when the plugin gets disabled.
+     */
+    public void shutdown() {
+        warmUpTask.cancel();
+        warmUpExecutor.shutdownNow();
+        warmUpQueue.clear();
+        pendingWarmUps.clear();
+    }
+
     @EventHandler
     @SuppressWarnings("unused")
-    public void onPlayerLogin(PlayerLoginEvent e) {
+    public void onPlayerJoin(PlayerJoinEvent e) {
         onPlayerJoin(e.getPlayer());
     }
 
     public void onPlayerJoin(Player p) {
         AtomicBoolean isInv = new AtomicBoolean(false);
-        Hook<SuperVanishHook> svHook = plugin.getHookContainer().getHook(SuperVanishHook.class);
+        Hook<SuperVanishHook> svHook = plugin.getHookContainer().getSuperVanish();
         plugin.getPluginLogger().debug("SV Hooked: " + svHook.isHooked());
         svHook.ifHooked(hook -> {
             if (hook.isInvisible(p))
@@ -144,12 +368,56 @@ public class HeadCache implements Listener {
             plugin.getPluginLogger().debug("Player is vanished (SuperVanish) skipping skull cache");
             return;
         }
-        Bukkit.getScheduler().runTaskAsynchronously(plugin, () -> HEAD_CACHE.getUnchecked(p));
+        addToRosters(p);
+        warmUp(p);
     }
 
     @EventHandler
     @SuppressWarnings("unused")
     public void onPlayerQuit(PlayerQuitEvent e) {
+        removeFromRosters(e.getPlayer(), e.getPlayer().getWorld());
         HEAD_CACHE.invalidate(e.getPlayer());
     }
+
+    @EventHandler
+    @SuppressWarnings("unused")
+    public void onWorldChange(PlayerChangedWorldEvent e) {
+        Player p = e.getPlayer();
+        // Vanished players are not in any roster, keep it that way.
+        if (!roster.contains(p)) return;
+        removeFromWorldRoster(p, e.getFrom());
+        getRosterFor(p.getWorld()).add(p);
+    }
+
+    /**
+     * Hide a player from all rosters, i.e. when the player vanishes.
+     *
+     * @param player player to hide.
+     */
+    public void hide(Player player) {
+        removeFromRosters(player, player.getWorld());
+        invalidate(player);
+    }
+
+    /**
+     * Show a player in the rosters again, i.e. when the player re-appears.
+     *
+     * @param player player to show.
+     */
+    public void show(Player player) {
+        addToRosters(player);
+        warmUp(player);
+    }
+
+    private static class HeadRequest {
+        private final Player player;
+        private final String displayName;
+        private final int generation;
+
+        private HeadRequest(Player player, String displayName, int generation) {
+            this.player = player;
+            this.displayName = displayName;
+            this.generation = generation;
+        }
+    }
 }
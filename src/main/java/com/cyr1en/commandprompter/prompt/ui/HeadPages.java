@@ -0,0 +1,106 @@
+package com.cyr1en.commandprompter.prompt.ui;
+
+import org.bukkit.inventory.ItemStack;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Immutable, versioned pages of skulls built from a {@link HeadRoster}.
+ *
+ * <p>Pages are shared between every player that is viewing the same roster,
+ * and are only rebuilt by {@link HeadCache} when the version of the roster changes.
+ * The {@link ItemStack}s in a page are shared too, so they must never be mutated.
+ * Clone them before handing them to a GUI.</p>
+ *
+ * <p>Next to the heads, every page keeps the name and {@link UUID} of the owner of
+ * each head, at the same index. That way a click on a head can be resolved with an
+ * array lookup instead of reading the display name back from the item.</p>
+ */
+public final class HeadPages {
+
+    private final long version;
+    private final int pageSize;
+    private final ItemStack[][] pages;
+    private final String[][] names;
+    private final UUID[][] owners;
+
+    private HeadPages(long version, int pageSize, ItemStack[][] pages, String[][] names, UUID[][] owners) {
+        this.version = version;
+        this.pageSize = pageSize;
+        this.pages = pages;
+        this.names = names;
+        this.owners = owners;
+    }
+
+    /**
+     * Split a list of heads into pages.
+     *
+     * <p>The lists must have the same size, the name and owner at an index
+     * belong to the head at the same index.</p>
+     *
+     * @param version  version of the roster the heads came from.
+     * @param pageSize number of heads per page.
+     * @param heads    heads to split.
+     * @param names    names of the owners of the heads.
+     * @param owners   UUIDs of the owners of the heads.
+     * @return the new pages.
+     */
+    public static HeadPages of(long version, int pageSize, List<ItemStack> heads, List<String> names,
+                               List<UUID> owners) {
+        int pageCount = (heads.size() + pageSize - 1) / pageSize;
+        ItemStack[][] headPages = new ItemStack[pageCount][];
+        String[][] namePages = new String[pageCount][];
+        UUID[][] ownerPages = new UUID[pageCount][];
+        for (int i = 0; i < pageCount; i++) {
+            int from = i * pageSize;
+            int to = Math.min(from + pageSize, heads.size());
+            headPages[i] = heads.subList(from, to).toArray(new ItemStack[0]);
+            namePages[i] = names.subList(from, to).toArray(new String[0]);
+            ownerPages[i] = owners.subList(from, to).toArray(new UUID[0]);
+        }
+        return new HeadPages(version, pageSize, headPages, namePages, ownerPages);
+    }
+
+    public boolean isCurrent(long version, int pageSize) {
+        return this.version == version && this.pageSize == pageSize;
+    }
+
+    public int getPageCount() {
+        return pages.length;
+    }
+
+    /**
+     * Get the heads in a page.
+     *
+     * <p>The returned array is shared, do not modify it or its items.</p>
+     *
+     * @param page index of the page.
+     * @return the heads in the page.
+     */
+    public ItemStack[] getPage(int page) {
+        return pages[page];
+    }
+
+    /**
+     * Get the name of the owner of a head.
+     *
+     * @param page  index of the page.
+     * @param index index of the head in the page.
+     * @return name of the owner.
+     */
+    public String getName(int page, int index) {
+        return names[page][index];
+    }
+
+    /**
+     * Get the UUID of the owner of a head.
+     *
+     * @param page  index of the page.
+     * @param index index of the head in the page.
+     * @return UUID of the owner.
+     */
+    public UUID getOwner(int page, int index) {
+        return owners[page][index];
+    }
+}
@@ -0,0 +1,216 @@
+package com.cyr1en.commandprompter.prompt.ui;
+
+import org.bukkit.entity.Player;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.function.Function;
+
+/**
+ * Copy-on-write list of players whose skulls can be shown in a player UI prompt.
+ *
+ * <p>Rosters are only mutated by {@link HeadCache} from the main thread when a player
+ * joins, quits, changes world or (un)vanishes. Reading a roster is just a read of
+ * the current immutable snapshot.</p>
+ *
+ * <p>Every roster also has a prefix index of its players, sorted by lower-cased name,
+ * so that searching by a name prefix is a binary search instead of a scan. The index is
+ * built on the first search after the roster changed, so joins and quits don't pay for it.</p>
+ */
+public class HeadRoster {
+
+    private final boolean sorted;
+    private final Comparator<Player> order;
+    private volatile List<Player> snapshot;
+    private volatile PrefixIndex index;
+    private volatile long version;
+    private volatile HeadPages pages;
+
+    /**
+     * @param sorted   whether players are kept sorted.
+     * @param sortName name a player is sorted by, compared ignoring case.
+     */
+    public HeadRoster(boolean sorted, Function<Player, String> sortName) {
+        this.sorted = sorted;
+        this.order = Comparator.comparing(sortName, String.CASE_INSENSITIVE_ORDER);
+        this.snapshot = Collections.emptyList();
+        this.index = PrefixIndex.of(snapshot);
+    }
+
+    /**
+     * Add a player to this roster.
+     *
+     * <p>If the roster is sorted, the player is inserted at its sorted position.
+     * Otherwise, it's appended at the end.</p>
+     *
+     * @param player player to add.
+     * @return true if the roster changed.
+     */
+    public boolean add(Player player) {
+        List<Player> current = snapshot;
+        if (current.contains(player)) return false;
+        List<Player> copy = new ArrayList<>(current.size() + 1);
+        copy.addAll(current);
+        if (sorted) {
+            int idx = Collections.binarySearch(copy, player, order);
+            copy.add(idx < 0 ? -idx - 1 : idx, player);
+        } else
+            copy.add(player);
+        publish(copy);
+        return true;
+    }
+
+    /**
+     * Remove a player from this roster.
+     *
+     * @param player player to remove.
+     * @return true if the roster changed.
+     */
+    public boolean remove(Player player) {
+        List<Player> current = snapshot;
+        int idx = current.indexOf(player);
+        if (idx == -1) return false;
+        List<Player> copy = new ArrayList<>(current);
+        copy.remove(idx);
+        publish(copy);
+        return true;
+    }
+
+    private void publish(List<Player> players) {
+        snapshot = Collections.unmodifiableList(players);
+        version++;
+    }
+
+    public boolean contains(Player player) {
+        return snapshot.contains(player);
+    }
+
+    public boolean isEmpty() {
+        return snapshot.isEmpty();
+    }
+
+    public boolean isSorted() {
+        return sorted;
+    }
+
+    /**
+     * Get the current snapshot of this roster.
+     *
+     * @return immutable list of players in this roster.
+     */
+    public List<Player> getPlayers() {
+        return snapshot;
+    }
+
+    /**
+     * Find all players in this roster whose name starts with a prefix, ignoring case.
+     *
+     * @param prefix prefix to search for.
+     * @return immutable list of matching players, sorted by name.
+     */
+    public List<Player> search(String prefix) {
+        List<Player> current = snapshot;
+        PrefixIndex currentIndex = index;
+        if (currentIndex.source != current) {
+            currentIndex = PrefixIndex.of(current);
+            index = currentIndex;
+        }
+        return currentIndex.search(prefix);
+    }
+
+    /**
+     * Get the version of this roster.
+     *
+     * <p>The version is bumped every time a player is added or removed.</p>
+     *
+     * @return current version of this roster.
+     */
+    public long getVersion() {
+        return version;
+    }
+
+    HeadPages getPages() {
+        return pages;
+    }
+
+    void setPages(HeadPages pages) {
+        this.pages = pages;
+    }
+
+    /**
+     * Players sorted by lower-cased name, with a parallel array of keys to binary search on.
+     */
+    private static final class PrefixIndex {
+        private final List<Player> source;
+        private final String[] keys;
+        private final Player[] players;
+
+        private PrefixIndex(List<Player> source, String[] keys, Player[] players) {
+            this.source = source;
+            this.keys = keys;
+            this.players = players;
+        }
+
+        /**
+         * @param roster snapshot to index, remembered so the index can tell when it's outdated.
+         */
+        private static PrefixIndex of(List<Player> roster) {
+            Entry[] entries = new Entry[roster.size()];
+            for (int i = 0; i < entries.length; i++) {
+                Player player = roster.get(i);
+                entries[i] = new Entry(toKey(player.getName()), player);
+            }
+            Arrays.sort(entries, Comparator.comparing(entry -> entry.key));
+
+            String[] keys = new String[entries.length];
+            Player[] players = new Player[entries.length];
+            for (int i = 0; i < entries.length; i++) {
+                keys[i] = entries[i].key;
+                players[i] = entries[i].player;
+            }
+            return new PrefixIndex(roster, keys, players);
+        }
+
+        private static String toKey(String name) {
+            return name.toLowerCase(Locale.ROOT);
+        }
+
+        private List<Player> search(String prefix) {
+            String key = toKey(prefix);
+            int from = lowerBound(key);
+            int to = from;
+            while (to < keys.length && keys[to].startsWith(key))
+                to++;
+            return Collections.unmodifiableList(Arrays.asList(players).subList(from, to));
+        }
+
+        /**
+         * Index of the first key that is greater than or equal to the given key.
+         */
+        private int lowerBound(String key) {
+            int lo = 0, hi = keys.length;
+            while (lo < hi) {
+                int mid = (lo + hi) >>> 1;
+                if (keys[mid].compareTo(key) < 0)
+                    lo = mid + 1;
+                else
+                    hi = mid;
+            }
+            return lo;
+        }
+
+        private static final class Entry {
+            private final String key;
+            private final Player player;
+
+            private Entry(String key, Player player) {
+                this.key = key;
+                this.player = player;
+            }
+        }
+    }
+}
@@ -0,0 +1,91 @@
+package com.cyr1en.commandprompter.prompt.ui;
+
+import com.cyr1en.commandprompter.config.PromptConfig;
+import com.cyr1en.commandprompter.util.Util;
+import org.bukkit.Material;
+import org.bukkit.enchantments.Enchantment;
+import org.bukkit.inventory.ItemFlag;
+import org.bukkit.inventory.ItemStack;
+import org.bukkit.inventory.meta.ItemMeta;
+
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Items used by the prompt GUIs, built once from a {@link PromptConfig}.
+ *
+ * <p>Materials, enchantments, flags and coloured button names are resolved when the
+ * templates are built. The templates themselves are never handed out. Every accessor
+ * returns a clone, so callers are free to modify the item they get.</p>
+ *
+ * <p>A new instance should be created whenever the prompt config is reloaded.</p>
+ */
+public class ItemTemplates {
+
+    private final ItemStack anvilItem;
+    private final ItemStack previousButton;
+    private final ItemStack nextButton;
+    private final ItemStack cancelButton;
+    private final ItemStack searchButton;
+
+    public ItemTemplates(PromptConfig config) {
+        this.anvilItem = makeAnvilItem(config);
+        this.previousButton = makeButton(config.previousItem, Material.FEATHER, config.previousText);
+        this.nextButton = makeButton(config.nextItem, Material.FEATHER, config.nextText);
+        this.cancelButton = makeButton(config.cancelItem, Material.FEATHER, config.cancelText);
+        this.searchButton = makeButton(config.searchItem, Material.COMPASS, config.searchText);
+    }
+
+    private ItemStack makeAnvilItem(PromptConfig config) {
+        ItemStack item = new ItemStack(Util.getCheckedMaterial(config.anvilItem, Material.PAPER));
+        ItemMeta meta = Objects.requireNonNull(item.getItemMeta());
+        if (config.anvilEnchanted) {
+            meta.addEnchant(Enchantment.LURE, 1, true);
+            meta.addItemFlags(ItemFlag.HIDE_ENCHANTS);
+        }
+        meta.addItemFlags(ItemFlag.HIDE_ATTRIBUTES);
+        item.setItemMeta(meta);
+        return item;
+    }
+
+    private ItemStack makeButton(String material, Material defaultMaterial, String name) {
+        ItemStack item = new ItemStack(Util.getCheckedMaterial(material, defaultMaterial));
+        ItemMeta meta = Objects.requireNonNull(item.getItemMeta());
+        meta.setDisplayName(Util.color(name));
+        item.setItemMeta(meta);
+        return item;
+    }
+
+    /**
+     * Get a copy of the anvil item with the text of a prompt applied.
+     *
+     * @param displayName display name of the item.
+     * @param lore        already coloured lore of the item, or null for no lore.
+     * @return the anvil item.
+     */
+    public ItemStack anvilItem(String displayName, List<String> lore) {
+        ItemStack item = anvilItem.clone();
+        ItemMeta meta = Objects.requireNonNull(item.getItemMeta());
+        meta.setDisplayName(displayName);
+        if (lore != null)
+            meta.setLore(lore);
+        item.setItemMeta(meta);
+        return item;
+    }
+
+    public ItemStack previousButton() {
+        return previousButton.clone();
+    }
+
+    public ItemStack nextButton() {
+        return nextButton.clone();
+    }
+
+    public ItemStack cancelButton() {
+        return cancelButton.clone();
+    }
+
+    public ItemStack searchButton() {
+        return searchButton.clone();
+    }
+}
@@ -2,73 +2,171 @@ package com.cyr1en.commandprompter.prompt.ui;
 
 import com.comphenix.protocol.PacketType;
 import com.comphenix.protocol.ProtocolLibrary;
+import com.comphenix.protocol.ProtocolManager;
 import com.comphenix.protocol.events.PacketAdapter;
 import com.comphenix.protocol.events.PacketContainer;
 import com.comphenix.protocol.events.PacketEvent;
+import com.comphenix.protocol.events.PacketListener;
 import com.comphenix.protocol.wrappers.BlockPosition;
+import com.cyr1en.commandprompter.listener.EventRegistrar;
 import org.bukkit.Bukkit;
 import org.bukkit.ChatColor;
 import org.bukkit.Location;
 import org.bukkit.Material;
 import org.bukkit.entity.Player;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.HandlerList;
+import org.bukkit.event.Listener;
+import org.bukkit.event.player.PlayerQuitEvent;
 import org.bukkit.plugin.Plugin;
+import org.bukkit.scheduler.BukkitTask;
 
 import java.lang.reflect.InvocationTargetException;
-import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import java.util.Queue;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.function.BiPredicate;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
-public final class SignMenuFactory {
+/**
+ * Plugin-wide service for sign inputs.
+ *
+ * <p>Only one instance of this should exist. It registers a single {@code UPDATE_SIGN}
+ * packet listener in {@link #register()}, which is removed again in {@link #unregister()}.
+ * Open menus are kept in a concurrent map keyed by the player's {@link UUID}, so handling
+ * a sign packet is a single map removal no matter how many sign prompts were ever sent.</p>
+ *
+ * <p>Sign packets arrive on ProtocolLib's netty thread. There, the lines are only turned into an
+ * answer by the menu's {@link Menu#parser(Function) parser}, which must not touch Bukkit. The
+ * answer is then queued and handed to the menu's {@link Menu#response(BiPredicate) response}
+ * on the main thread, where the queue is drained once per tick.</p>
+ */
+public final class SignMenuFactory implements Listener {
 
     private final Plugin plugin;
+    private final ProtocolManager protocolManager;
 
-    private final Map<Player, Menu> inputs;
+    private final Map<UUID, Menu> inputs;
+    private final Queue<Answer> answers;
+
+    private PacketListener packetListener;
+    private BukkitTask answerTask;
 
     public SignMenuFactory(Plugin plugin) {
+        this(plugin, ProtocolLibrary.getProtocolManager());
+    }
+
+    /**
+     * @param plugin          plugin that owns the packet listener.
+     * @param protocolManager protocol manager to listen and send packets with.
+     */
+    public SignMenuFactory(Plugin plugin, ProtocolManager protocolManager) {
         this.plugin = plugin;
-        this.inputs = new HashMap<>();
-        this.listen();
+        this.protocolManager = protocolManager;
+        this.inputs = new ConcurrentHashMap<>();
+        this.answers = new ConcurrentLinkedQueue<>();
     }
 
     public Menu newMenu(List<String> text) {
         return new Menu(text);
     }
 
-    private void listen() {
-        ProtocolLibrary.getProtocolManager().addPacketListener(new PacketAdapter(this.plugin, PacketType.Play.Client.UPDATE_SIGN) {
+    /**
+     * Start listening for sign updates.
+     */
+    public void register() {
+        if (packetListener != null) return;
+        packetListener = createPacketListener();
+        protocolManager.addPacketListener(packetListener);
+        EventRegistrar.register(this, plugin);
+        answerTask = Bukkit.getScheduler().runTaskTimer(plugin, this::drainAnswers, 1L, 1L);
+    }
+
+    /**
+     * Stop listening for sign updates and forget all open menus.
+     */
+    public void unregister() {
+        if (packetListener == null) return;
+        protocolManager.removePacketListener(packetListener);
+        HandlerList.unregisterAll(this);
+        answerTask.cancel();
+        packetListener = null;
+        answerTask = null;
+        inputs.clear();
+        answers.clear();
+    }
+
+    @EventHandler
+    @SuppressWarnings("unused")
+    public void onPlayerQuit(PlayerQuitEvent event) {
+        inputs.remove(event.getPlayer().getUniqueId());
+    }
+
+    private PacketListener createPacketListener() {
+        return new PacketAdapter(this.plugin, PacketType.Play.Client.UPDATE_SIGN) {
             @Override
             public void onPacketReceiving(PacketEvent event) {
                 Player player = event.getPlayer();
 
-                Menu menu = inputs.remove(player);
+                Menu menu = inputs.remove(player.getUniqueId());
 
                 if (menu == null) {
                     return;
                 }
                 event.setCancelled(true);
 
-                boolean success = menu.response.test(player, event.getPacket().getStringArrays().read(0));
+                String text = menu.parser.apply(event.getPacket().getStringArrays().read(0));
+                answers.add(new Answer(player, menu, text));
+            }
+        };
+    }
 
-                if (!success && menu.reopenIfFail && !menu.forceClose) {
-                    Bukkit.getScheduler().runTaskLater(plugin, () -> menu.open(player), 2L);
-                }
-                Bukkit.getScheduler().runTaskLater(plugin, () -> {
-                    if (player.isOnline()) {
-                        player.sendBlockChange(menu.location, menu.location.getBlock().getBlockData());
-                    }
-                }, 2L);
+    /**
+     * Hand queued answers to their menus. Runs on the main thread.
+     */
+    private void drainAnswers() {
+        Answer answer;
+        while ((answer = answers.poll()) != null) {
+            Player player = answer.player;
+            Menu menu = answer.menu;
+            if (!player.isOnline()) continue;
+
+            boolean success = menu.response.test(player, answer.text);
+
+            if (!success && menu.reopenIfFail && !menu.forceClose) {
+                Bukkit.getScheduler().runTaskLater(plugin, () -> menu.open(player), 2L);
             }
-        });
+            Bukkit.getScheduler().runTaskLater(plugin, () -> {
+                if (player.isOnline()) {
+                    player.sendBlockChange(menu.location, menu.location.getBlock().getBlockData());
+                }
+            }, 2L);
+        }
+    }
+
+    private static final class Answer {
+        private final Player player;
+        private final Menu menu;
+        private final String text;
+
+        private Answer(Player player, Menu menu, String text) {
+            this.player = player;
+            this.menu = menu;
+            this.text = text;
+        }
     }
 
     public final class Menu {
 
         private final List<String> text;
 
-        private BiPredicate<Player, String[]> response;
+        private Function<String[], String> parser;
+        private BiPredicate<Player, String> response;
         private boolean reopenIfFail;
 
         private Location location;
@@ -77,6 +175,7 @@ public final class SignMenuFactory {
 
         Menu(List<String> text) {
             this.text = text;
+            this.parser = lines -> String.join(" ", lines);
         }
 
         public Menu reopenIfFail(boolean value) {
@@ -84,7 +183,27 @@ public final class SignMenuFactory {
             return this;
         }
 
-        public Menu response(BiPredicate<Player, String[]> response) {
+        /**
+         * Set how the lines of the sign are turned into an answer.
+         *
+         * <p>The parser runs on the netty thread, so it must not call into Bukkit
+         * or touch any state that's owned by the main thread.</p>
+         *
+         * @param parser function from the lines of the sign to an answer.
+         * @return this menu.
+         */
+        public Menu parser(Function<String[], String> parser) {
+            this.parser = parser;
+            return this;
+        }
+
+        /**
+         * Set what to do with the answer. The response runs on the main thread.
+         *
+         * @param response consumer of the answer, returns false if the answer was not accepted.
+         * @return this menu.
+         */
+        public Menu response(BiPredicate<Player, String> response) {
             this.response = response;
             return this;
         }
@@ -102,16 +221,16 @@ public final class SignMenuFactory {
                     location,
                     text.stream().map(this::color).collect(Collectors.toList()).toArray(new String[4]));
 
-            PacketContainer openSign = ProtocolLibrary.getProtocolManager().createPacket(PacketType.Play.Server.OPEN_SIGN_EDITOR);
+            PacketContainer openSign = protocolManager.createPacket(PacketType.Play.Server.OPEN_SIGN_EDITOR);
             BlockPosition position = new BlockPosition(location.getBlockX(), location.getBlockY(), location.getBlockZ());
             openSign.getBlockPositionModifier().write(0, position);
             try {
-                ProtocolLibrary.getProtocolManager().sendServerPacket(player, openSign);
+                protocolManager.sendServerPacket(player, openSign);
             } catch (InvocationTargetException exception) {
                 exception.printStackTrace();
             }
 
-            inputs.put(player, this);
+            inputs.put(player.getUniqueId(), this);
         }
 
         /**
@@ -2,61 +2,75 @@ package com.cyr1en.commandprompter.prompt.ui.inventory;
 
 import com.cyr1en.commandprompter.CommandPrompter;
 import com.cyr1en.commandprompter.prompt.PromptContext;
-import com.cyr1en.commandprompter.util.Util;
+import com.cyr1en.commandprompter.prompt.ui.ItemTemplates;
 import com.github.stefvanschie.inventoryframework.gui.GuiItem;
 import com.github.stefvanschie.inventoryframework.gui.type.ChestGui;
 import com.github.stefvanschie.inventoryframework.pane.PaginatedPane;
 import com.github.stefvanschie.inventoryframework.pane.StaticPane;
-import org.bukkit.Material;
 import org.bukkit.entity.Player;
 import org.bukkit.event.inventory.InventoryClickEvent;
 import org.bukkit.inventory.ItemStack;
-import org.bukkit.inventory.meta.ItemMeta;
 
-import java.util.Objects;
 import java.util.function.Consumer;
 
 public class ControlPane extends StaticPane {
     private static final int DEFAULT_PREV_LOC = 2;
     private static final int DEFAULT_NEXT_LOC = 6;
     private static final int DEFAULT_CANCEL_LOC = 4;
+    private static final int DEFAULT_SEARCH_LOC = 0;
 
     private final CommandPrompter plugin;
     private final PaginatedPane paginatedPane;
     private final ChestGui gui;
     private final PromptContext ctx;
+    private final Runnable searchAction;
 
     private int prevLoc;
     private int nextLoc;
     private int cancelLoc;
+    private int searchLoc;
 
     public ControlPane(CommandPrompter plugin, PaginatedPane pane, ChestGui gui, PromptContext ctx, int numCols) {
+        this(plugin, pane, gui, ctx, numCols, null);
+    }
+
+    /**
+     * Construct a control pane with a search button.
+     *
+     * @param searchAction action to run when the search button is clicked, or null to not show the button.
+     */
+    public ControlPane(CommandPrompter plugin, PaginatedPane pane, ChestGui gui, PromptContext ctx, int numCols,
+                       Runnable searchAction) {
         super(0, numCols - 1, 9, 1);
         this.plugin = plugin;
         prevLoc = plugin.getPromptConfig().previousColumn - 1;
         nextLoc = plugin.getPromptConfig().nextColumn - 1;
         cancelLoc = plugin.getPromptConfig().cancelColumn - 1;
+        searchLoc = plugin.getPromptConfig().searchColumn - 1;
         this.paginatedPane = pane;
         this.ctx = ctx;
         this.gui = gui;
+        this.searchAction = plugin.getPromptConfig().searchEnabled ? searchAction : null;
         verifyLocs();
         setupButtons();
     }
 
     private void verifyLocs() {
-        if (prevLoc == nextLoc || prevLoc == cancelLoc || nextLoc == cancelLoc) {
+        boolean searchCollides = searchAction != null &&
+                (searchLoc < 0 || searchLoc > 8 || searchLoc == prevLoc || searchLoc == nextLoc || searchLoc == cancelLoc);
+        if (prevLoc == nextLoc || prevLoc == cancelLoc || nextLoc == cancelLoc || searchCollides) {
             this.prevLoc = DEFAULT_PREV_LOC;
             this.nextLoc = DEFAULT_NEXT_LOC;
             this.cancelLoc = DEFAULT_CANCEL_LOC;
+            this.searchLoc = DEFAULT_SEARCH_LOC;
         }
     }
 
     private void setupButtons() {
         int pages = paginatedPane.getPages() - 1;
+        ItemTemplates templates = plugin.getItemTemplates();
 
-        String prevMatString = plugin.getPromptConfig().previousItem;
-        ItemStack prevIS = new ItemStack(Util.getCheckedMaterial(prevMatString, Material.FEATHER));
-        addItem(plugin.getPromptConfig().previousText, prevIS, prevLoc,
+        addItem(templates.previousButton(), prevLoc,
                 c -> {
                     c.setCancelled(true);
                     int prev = Math.max((paginatedPane.getPage() - 1), 0);
@@ -66,9 +80,7 @@ public class ControlPane extends StaticPane {
                     } catch (Throwable ignored) {}
                 });
 
-        String nextMatString = plugin.getPromptConfig().nextItem;
-        ItemStack nextIS = new ItemStack(Util.getCheckedMaterial(nextMatString, Material.FEATHER));
-        addItem(plugin.getPromptConfig().nextText, nextIS, nextLoc,
+        addItem(templates.nextButton(), nextLoc,
                 c -> {
                     c.setCancelled(true);
                     int next = Math.min((paginatedPane.getPage() + 1), pages);
@@ -78,20 +90,22 @@ public class ControlPane extends StaticPane {
                     } catch (Throwable ignored) {}
                 });
 
-        String cancelMatString = plugin.getPromptConfig().cancelItem;
-        ItemStack cancelIS = new ItemStack(Util.getCheckedMaterial(cancelMatString, Material.FEATHER));
-        addItem(plugin.getPromptConfig().cancelText, cancelIS, cancelLoc,
+        addItem(templates.cancelButton(), cancelLoc,
                 c -> {
                     c.setCancelled(true);
                     plugin.getPromptManager().cancel(ctx.getSender());
                     ((Player) ctx.getSender()).closeInventory();
                 });
+
+        if (searchAction == null) return;
+        addItem(templates.searchButton(), searchLoc,
+                c -> {
+                    c.setCancelled(true);
+                    searchAction.run();
+                });
     }
 
-    private void addItem(String name, ItemStack itemStack, int x, Consumer<InventoryClickEvent> consumer) {
-        ItemMeta itemMeta = itemStack.getItemMeta();
-        Objects.requireNonNull(itemMeta).setDisplayName(Util.color(name));
-        itemStack.setItemMeta(itemMeta);
+    private void addItem(ItemStack itemStack, int x, Consumer<InventoryClickEvent> consumer) {
         addItem(new GuiItem(itemStack, consumer), x, 0);
     }
 }
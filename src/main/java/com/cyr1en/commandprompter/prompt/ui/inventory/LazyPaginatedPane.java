@@ -0,0 +1,66 @@
+package com.cyr1en.commandprompter.prompt.ui.inventory;
+
+import com.github.stefvanschie.inventoryframework.pane.OutlinePane;
+import com.github.stefvanschie.inventoryframework.pane.PaginatedPane;
+
+import java.util.function.ObjIntConsumer;
+
+/**
+ * A {@link PaginatedPane} that only fills the page that is being shown.
+ *
+ * <p>Every page starts out as an empty {@link OutlinePane}. A page gets filled by the
+ * page loader when it's shown (and optionally, the page after it, so that flipping
+ * forward is instant). Pages that are no longer needed are cleared again, so the number
+ * of items held by this pane is bounded by the page size instead of the total item count.</p>
+ */
+public class LazyPaginatedPane extends PaginatedPane {
+
+    private final OutlinePane[] pages;
+    private final boolean[] loaded;
+    private final ObjIntConsumer<OutlinePane> pageLoader;
+    private final boolean prefetchNext;
+
+    /**
+     * @param pageCount    number of pages.
+     * @param pageLoader   fills the given page with its items.
+     * @param prefetchNext whether the page after the shown page should be filled too.
+     */
+    public LazyPaginatedPane(int x, int y, int length, int height, int pageCount,
+                             ObjIntConsumer<OutlinePane> pageLoader, boolean prefetchNext) {
+        super(x, y, length, height);
+        this.pages = new OutlinePane[pageCount];
+        this.loaded = new boolean[pageCount];
+        this.pageLoader = pageLoader;
+        this.prefetchNext = prefetchNext;
+        for (int i = 0; i < pageCount; i++) {
+            pages[i] = new OutlinePane(0, 0, length, height);
+            addPane(i, pages[i]);
+        }
+        if (pageCount > 0)
+            setPage(0);
+    }
+
+    @Override
+    public void setPage(int page) {
+        super.setPage(page);
+        for (int i = 0; i < pages.length; i++) {
+            if (loaded[i] && !isKept(i, page)) {
+                pages[i].clear();
+                loaded[i] = false;
+            }
+        }
+        load(page);
+        if (prefetchNext && page + 1 < pages.length)
+            load(page + 1);
+    }
+
+    private boolean isKept(int index, int page) {
+        return index == page || (prefetchNext && index == page + 1);
+    }
+
+    private void load(int page) {
+        if (loaded[page]) return;
+        pageLoader.accept(pages[page], page);
+        loaded[page] = true;
+    }
+}
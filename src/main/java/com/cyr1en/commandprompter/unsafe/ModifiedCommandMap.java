@@ -6,6 +6,7 @@ import org.bukkit.command.Command;
 import org.bukkit.command.CommandException;
 import org.bukkit.command.CommandSender;
 import org.bukkit.command.SimpleCommandMap;
+import org.bukkit.entity.Player;
 
 import java.lang.reflect.Field;
 import java.util.Map;
@@ -29,13 +30,24 @@ public class ModifiedCommandMap extends SimpleCommandMap {
      * To minimize the effects of replacing the old map with this new map.
      * We have to make sure that we retain all commands that have been registered in
      * the old map.
+     *
+     * <p>
+     * Instead of copying, this map uses the same knownCommands instance as the old map.
+     * Commands that get registered later, through either map, show up in both. If that
+     * fails, it falls back to a copy of the old map.
      */
     private void rebuildKnownCommands() {
         try {
             SimpleCommandMap commandMap = grabCommandMap();
             Map<String, Command> originalKnownCommands = grabKnownCommandsFromMap(commandMap);
-            this.knownCommands.putAll(originalKnownCommands);
-            plugin.getPluginLogger().warn("Finished rebuilding known commands.");
+            try {
+                knownCommandsField().set(this, originalKnownCommands);
+                plugin.getPluginLogger().warn("Now sharing known commands with the original map.");
+            } catch (IllegalAccessException e) {
+                plugin.getPluginLogger().debug("Could not share known commands: " + e);
+                this.knownCommands.putAll(originalKnownCommands);
+                plugin.getPluginLogger().warn("Finished rebuilding known commands.");
+            }
         } catch (NoSuchFieldException | IllegalAccessException e) {
             e.printStackTrace();
         }
@@ -44,9 +56,13 @@ public class ModifiedCommandMap extends SimpleCommandMap {
     @SuppressWarnings("unchecked")
     private Map<String, Command> grabKnownCommandsFromMap(SimpleCommandMap commandMap)
             throws NoSuchFieldException, IllegalAccessException {
-        Field mapField = commandMap.getClass().getSuperclass().getDeclaredField("knownCommands");
+        return (Map<String, Command>) knownCommandsField().get(commandMap);
+    }
+
+    private Field knownCommandsField() throws NoSuchFieldException {
+        Field mapField = SimpleCommandMap.class.getDeclaredField("knownCommands");
         mapField.setAccessible(true);
-        return (Map<String, Command>) mapField.get(commandMap);
+        return mapField;
     }
 
     private SimpleCommandMap grabCommandMap() throws NoSuchFieldException, IllegalAccessException {
@@ -57,6 +73,9 @@ public class ModifiedCommandMap extends SimpleCommandMap {
 
     @Override
     public boolean dispatch(CommandSender sender, String commandLine) throws CommandException {
+        // Console and command blocks can't answer prompts, don't fire the event unless there's one to parse.
+        if (!(sender instanceof Player) && !plugin.getPromptManager().getParser().mayContainPrompt(commandLine))
+            return super.dispatch(sender, commandLine);
         CommandDispatchEvent event = new CommandDispatchEvent(sender, commandLine);
         Bukkit.getServer().getPluginManager().callEvent(event);
         if (event.isCancelled())
@@ -1,8 +1,16 @@
 package com.cyr1en.commandprompter.unsafe;
 
+import com.cyr1en.commandprompter.CommandPrompter;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.WrongMethodTypeException;
 import java.lang.reflect.Field;
 import java.lang.reflect.Modifier;
+import java.lang.reflect.UndeclaredThrowableException;
+import java.util.Map;
 import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * A utility class that allows you to easily change the value of private final fields.
@@ -20,13 +28,27 @@ import java.util.Objects;
  *     var mutator = new PvtFieldMutator();
  *     mutator.forField("targetField").in(instanceOfTarget).with(newFieldVal);
  * }</pre>
+ * <p>
+ * Fields are looked up once per (class, field name) pair and kept as method handles,
+ * so repeated calls don't go through {@link Class#getDeclaredField(String)} again.
  */
 public class PvtFieldMutator {
+    private static final Map<Class<?>, Map<String, FieldAccessor>> ACCESSORS = new ConcurrentHashMap<>();
+
+    /**
+     * Name of the field in {@link Field} that holds its modifiers.
+     */
+    private static final String MODIFIERS_FIELD = "modifiers";
+    private static final ModifiersLookup DEFAULT_LOOKUP = () -> Field.class.getDeclaredField(MODIFIERS_FIELD);
+
+    private final ModifiersLookup modifiersLookup;
     private String targetName;
     private Object targetInstance;
 
-    private PvtFieldMutator() {
+    private PvtFieldMutator(ModifiersLookup modifiersLookup) {
+        this.modifiersLookup = modifiersLookup;
     }
+
     /**
      * Function that defines the name of the target.
      *
@@ -34,7 +56,20 @@ public class PvtFieldMutator {
      * @return instance of this class.
      */
     public static PvtFieldMutator forField(String targetFieldName) {
-        PvtFieldMutator mutator = new PvtFieldMutator();
+        return forField(targetFieldName, DEFAULT_LOOKUP);
+    }
+
+    /**
+     * Same as {@link #forField(String)}, but finds {@code Field.modifiers} through the given lookup.
+     *
+     * <p>Fields resolved with anything but the default lookup are not cached.</p>
+     *
+     * @param targetFieldName name of the target field.
+     * @param modifiersLookup lookup of the field that holds the modifiers of a {@link Field}.
+     * @return instance of this class.
+     */
+    static PvtFieldMutator forField(String targetFieldName, ModifiersLookup modifiersLookup) {
+        PvtFieldMutator mutator = new PvtFieldMutator(modifiersLookup);
         mutator.targetName = targetFieldName;
         return mutator;
     }
@@ -60,20 +95,10 @@ public class PvtFieldMutator {
      */
     public void replaceWith(Object newObject) throws NoSuchFieldException, IllegalStateException, IllegalAccessException {
         assertTargetNotNull();
-        Field targetField = targetInstance.getClass().getDeclaredField(targetName);
-        targetField.setAccessible(true);
-
-        // Remove FINAL modifier
-        int mod = targetField.getModifiers();
-        if (Modifier.isFinal(mod)) {
-            Field modifiers = targetField.getClass().getDeclaredField("modifiers");
-            modifiers.setAccessible(true);
-            modifiers.set(targetField, mod & ~Modifier.FINAL);
-        }
-
-        targetField.set(targetInstance, newObject);
+        FieldAccessor accessor = accessor();
+        accessor.set(targetInstance, newObject);
 
-        Object newFieldObject = targetField.get(targetInstance);
+        Object newFieldObject = accessor.get(targetInstance);
 
         if(Objects.isNull(newObject)) {
             if(!Objects.isNull(newFieldObject))
@@ -98,20 +123,29 @@ public class PvtFieldMutator {
      */
     public String getClassName() throws NoSuchFieldException, IllegalAccessException {
         assertTargetNotNull();
-        Field targetField = targetInstance.getClass().getDeclaredField(targetName);
-        targetField.setAccessible(true);
-        Object ob = targetField.get(targetInstance);
+        Object ob = accessor().get(targetInstance);
         return ob.getClass().getCanonicalName();
     }
 
     public int getHashCode() throws NoSuchFieldException, IllegalAccessException {
         assertTargetNotNull();
-        Field targetField = targetInstance.getClass().getDeclaredField(targetName);
-        targetField.setAccessible(true);
-        Object ob = targetField.get(targetInstance);
+        Object ob = accessor().get(targetInstance);
         return ob.hashCode();
     }
 
+    private FieldAccessor accessor() throws NoSuchFieldException, IllegalAccessException {
+        Class<?> targetClass = targetInstance.getClass();
+        if (modifiersLookup != DEFAULT_LOOKUP)
+            return FieldAccessor.of(targetClass.getDeclaredField(targetName), modifiersLookup);
+        Map<String, FieldAccessor> fields = ACCESSORS.computeIfAbsent(targetClass, c -> new ConcurrentHashMap<>());
+        FieldAccessor accessor = fields.get(targetName);
+        if (accessor == null) {
+            accessor = FieldAccessor.of(targetClass.getDeclaredField(targetName), modifiersLookup);
+            fields.put(targetName, accessor);
+        }
+        return accessor;
+    }
+
     /**
      * Asserts that both target field name and target instance is not null.
      *
@@ -121,4 +155,110 @@ public class PvtFieldMutator {
         if (this.targetInstance == null || this.targetName == null)
             throw new IllegalStateException("Target field name or target instance is null.");
     }
+
+    /**
+     * Finds the field that holds the modifiers of a {@link Field}.
+     */
+    @FunctionalInterface
+    interface ModifiersLookup {
+        Field find() throws NoSuchFieldException;
+    }
+
+    /**
+     * Resolved getter and setter for a single field.
+     *
+     * <p>
+     * The setter is a method handle when the field is not final. Final instance fields
+     * can still be written through the accessible {@link Field}. Static final fields need
+     * the FINAL modifier removed first, which only works on JDKs that still expose
+     * {@code Field.modifiers}. Where it doesn't, setting the field fails with a
+     * {@link PvtFieldMutationException} instead of leaving the field half-modified.
+     * <p>
+     * The modifiers are settled before any handle is created, so the getter and setter
+     * both see the field as it will be written.
+     */
+    private static final class FieldAccessor {
+        private final Field field;
+        private final MethodHandle getter;
+        private final MethodHandle setter;
+        private final boolean isStatic;
+
+        private FieldAccessor(Field field, MethodHandle getter, MethodHandle setter) {
+            this.field = field;
+            this.getter = getter;
+            this.setter = setter;
+            this.isStatic = Modifier.isStatic(field.getModifiers());
+        }
+
+        private static FieldAccessor of(Field field, ModifiersLookup modifiersLookup) throws IllegalAccessException {
+            field.setAccessible(true);
+            int mod = field.getModifiers();
+            if (Modifier.isStatic(mod) && Modifier.isFinal(mod))
+                removeFinalModifier(field, modifiersLookup);
+
+            MethodHandles.Lookup lookup = MethodHandles.lookup();
+            MethodHandle getter = lookup.unreflectGetter(field);
+            MethodHandle setter = Modifier.isFinal(field.getModifiers()) ? null : lookup.unreflectSetter(field);
+            return new FieldAccessor(field, getter, setter);
+        }
+
+        private static void removeFinalModifier(Field field, ModifiersLookup modifiersLookup) {
+            try {
+                Field modifiers = modifiersLookup.find();
+                modifiers.setAccessible(true);
+                modifiers.setInt(field, field.getModifiers() & ~Modifier.FINAL);
+            } catch (NoSuchFieldException | IllegalAccessException | RuntimeException e) {
+                // Newer JDKs hide Field.modifiers. Leave the field as is, set() reports the failure.
+            }
+        }
+
+        private Object get(Object instance) throws IllegalAccessException {
+            try {
+                return isStatic ? getter.invoke() : getter.invoke(instance);
+            } catch (WrongMethodTypeException | ClassCastException e) {
+                logFallback("get", e);
+                return field.get(instance);
+            } catch (RuntimeException | Error e) {
+                throw e;
+            } catch (Throwable t) {
+                // Field getters don't throw checked exceptions.
+                throw new UndeclaredThrowableException(t);
+            }
+        }
+
+        private void set(Object instance, Object value) throws IllegalAccessException {
+            if (setter == null) {
+                try {
+                    field.set(instance, value);
+                } catch (IllegalAccessException e) {
+                    throw new PvtFieldMutationException(value == null ? "null" : value.getClass().getSimpleName());
+                }
+                return;
+            }
+            try {
+                if (isStatic)
+                    setter.invoke(value);
+                else
+                    setter.invoke(instance, value);
+            } catch (WrongMethodTypeException | ClassCastException e) {
+                logFallback("set", e);
+                field.set(instance, value);
+            } catch (RuntimeException | Error e) {
+                throw e;
+            } catch (Throwable t) {
+                // Field setters don't throw checked exceptions.
+                throw new UndeclaredThrowableException(t);
+            }
+        }
+
+        /**
+         * The handles only fail on arguments of the wrong type, reflection then reports what's wrong with them.
+         */
+        private void logFallback(String operation, RuntimeException e) {
+            CommandPrompter plugin = CommandPrompter.getInstance();
+            if (plugin == null || plugin.getPluginLogger() == null) return;
+            plugin.getPluginLogger().debug("Could not %s %s through its method handle, using reflection: %s",
+                    operation, field, e);
+        }
+    }
 }
@@ -0,0 +1,241 @@
+package com.cyr1en.commandprompter.util;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Runs the steps of plugin startup as a small dependency graph and times each of them.
+ *
+ * <p>Async stages run on a bounded pool as soon as their dependencies are done. Sync stages
+ * run on the thread that adds them, i.e. the main thread, after waiting for their
+ * dependencies. {@link #finish()} waits for everything that's still running.</p>
+ *
+ * <p>Usage:</p>
+ * <pre>{@code
+ *     StartupGraph graph = new StartupGraph(2);
+ *     StartupGraph.Stage config = graph.async("config", this::setupConfig);
+ *     graph.sync("logger", this::setupLogger, config);
+ *     graph.finish();
+ * }</pre>
+ */
+public class StartupGraph {
+
+    private final ExecutorService executor;
+    private final long startNanos;
+    private final List<Stage> stages;
+
+    /**
+     * @param threads maximum number of async stages that run at the same time.
+     */
+    public StartupGraph(int threads) {
+        AtomicInteger count = new AtomicInteger();
+        this.executor = Executors.newFixedThreadPool(threads, r -> {
+            Thread thread = new Thread(r, "CommandPrompter-Startup-" + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.startNanos = System.nanoTime();
+        this.stages = Collections.synchronizedList(new ArrayList<>());
+    }
+
+    /**
+     * Add a stage that runs on the startup pool once its dependencies are done.
+     *
+     * @param name         name of the stage, used in the report.
+     * @param task         what the stage does.
+     * @param dependencies stages that have to finish first.
+     * @return the new stage.
+     */
+    public Stage async(String name, Runnable task, Stage... dependencies) {
+        Stage stage = new Stage(name, true);
+        stage.future = allOf(dependencies).thenRunAsync(() -> stage.run(task), executor);
+        stages.add(stage);
+        return stage;
+    }
+
+    /**
+     * Add a stage and run it right away on the current thread, after its dependencies are done.
+     *
+     * @param name         name of the stage, used in the report.
+     * @param task         what the stage does.
+     * @param dependencies stages that have to finish first.
+     * @return the new stage, already finished.
+     */
+    public Stage sync(String name, Runnable task, Stage... dependencies) {
+        Stage stage = new Stage(name, false);
+        // Set before the stage is added, so allOf() never sees a stage without a future.
+        CompletableFuture<Void> future = new CompletableFuture<>();
+        stage.future = future;
+        stages.add(stage);
+        try {
+            long waitStart = System.nanoTime();
+            join(allOf(dependencies));
+            stage.waitNanos = System.nanoTime() - waitStart;
+            stage.run(task);
+            future.complete(null);
+        } catch (RuntimeException | Error e) {
+            future.completeExceptionally(e);
+            throw e;
+        }
+        return stage;
+    }
+
+    /**
+     * Wait for every stage to finish and shut the startup pool down.
+     *
+     * @return total time of the startup in nanoseconds.
+     * @throws RuntimeException if a stage failed.
+     */
+    public long finish() {
+        try {
+            join(allOf(stages.toArray(new Stage[0])));
+        } finally {
+            executor.shutdown();
+        }
+        return System.nanoTime() - startNanos;
+    }
+
+    /**
+     * Stop the startup pool without waiting, used when a stage failed.
+     */
+    public void abort() {
+        executor.shutdownNow();
+    }
+
+    public List<Stage> getStages() {
+        return Collections.unmodifiableList(new ArrayList<>(stages));
+    }
+
+    /**
+     * One line summary of all stages, i.e. {@code config 12ms, i18n 3ms (async)}.
+     */
+    public String summary() {
+        StringBuilder sb = new StringBuilder();
+        for (Stage stage : getStages()) {
+            if (sb.length() > 0) sb.append(", ");
+            sb.append(stage.name).append(' ').append(toMillis(stage.durationNanos)).append("ms");
+            if (stage.async) sb.append(" (async)");
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Write a timing report of this startup to a file.
+     *
+     * <p>The file keeps the reports of the last {@code keep} startups, older ones are dropped.</p>
+     *
+     * @param file    file to write to.
+     * @param version plugin version, so reports of different versions can be compared.
+     * @param total   total startup time, as returned by {@link #finish()}.
+     * @param keep    number of reports to keep in the file, including this one.
+     */
+    public void writeReport(Path file, String version, long total, int keep) throws IOException {
+        Files.createDirectories(file.getParent());
+        List<String> lines = new ArrayList<>();
+        if (Files.exists(file))
+            lines.addAll(previousReports(Files.readAllLines(file, StandardCharsets.UTF_8), keep - 1));
+        try (Writer writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            for (String line : lines)
+                writer.write(line + System.lineSeparator());
+            String date = new SimpleDateFormat("yyyy-MM-dd HH:mm:ss").format(new Date());
+            writer.write(String.format("# %s | version %s | total %dms%n", date, version, toMillis(total)));
+            for (Stage stage : getStages()) {
+                writer.write(String.format("%-16s %6dms  start +%dms  waited %dms  %s%n", stage.name,
+                        toMillis(stage.durationNanos), toMillis(stage.startNanos - startNanos),
+                        toMillis(stage.waitNanos), stage.threadName));
+            }
+            writer.write(System.lineSeparator());
+        }
+    }
+
+    /**
+     * Get the lines of the last {@code count} reports in a report file, every report starts with a {@code #} line.
+     */
+    private static List<String> previousReports(List<String> lines, int count) {
+        if (count <= 0) return Collections.emptyList();
+        int from = lines.size();
+        int found = 0;
+        for (int i = lines.size() - 1; i >= 0 && found < count; i--) {
+            if (lines.get(i).startsWith("#")) {
+                from = i;
+                found++;
+            }
+        }
+        return lines.subList(from, lines.size());
+    }
+
+    private static CompletableFuture<Void> allOf(Stage... stages) {
+        CompletableFuture<?>[] futures = new CompletableFuture<?>[stages.length];
+        for (int i = 0; i < stages.length; i++)
+            futures[i] = stages[i].future;
+        return CompletableFuture.allOf(futures);
+    }
+
+    private static void join(CompletableFuture<?> future) {
+        try {
+            future.join();
+        } catch (CompletionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) throw (RuntimeException) cause;
+            if (cause instanceof Error) throw (Error) cause;
+            throw e;
+        }
+    }
+
+    private static long toMillis(long nanos) {
+        return TimeUnit.NANOSECONDS.toMillis(nanos);
+    }
+
+    public static final class Stage {
+        private final String name;
+        private final boolean async;
+        private volatile CompletableFuture<Void> future;
+        private volatile long startNanos;
+        private volatile long durationNanos;
+        private volatile long waitNanos;
+        private volatile String threadName;
+
+        private Stage(String name, boolean async) {
+            this.name = name;
+            this.async = async;
+        }
+
+        private void run(Runnable task) {
+            threadName = Thread.currentThread().getName();
+            startNanos = System.nanoTime();
+            try {
+                task.run();
+            } finally {
+                durationNanos = System.nanoTime() - startNanos;
+            }
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public boolean isAsync() {
+            return async;
+        }
+
+        public long getDurationNanos() {
+            return durationNanos;
+        }
+    }
+}
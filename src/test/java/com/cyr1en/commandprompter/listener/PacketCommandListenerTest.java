@@ -0,0 +1,71 @@
+package com.cyr1en.commandprompter.listener;
+
+import com.cyr1en.commandprompter.CommandPrompter;
+import com.cyr1en.commandprompter.fixture.StubPlugin;
+import com.cyr1en.commandprompter.fixture.StubServer;
+import org.bukkit.entity.Player;
+import org.bukkit.event.player.PlayerCommandPreprocessEvent;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PacketCommandListenerTest {
+
+    private StubServer server;
+    private PacketCommandListener listener;
+    private Player player;
+
+    @BeforeEach
+    void setUp() {
+        server = StubServer.get();
+        server.getScheduler().setEnabled(true);
+        CommandPrompter plugin = StubPlugin.create(server);
+        listener = new PacketCommandListener(plugin.getPromptManager());
+        player = server.join("player", server.world("world"));
+    }
+
+    @AfterEach
+    void tearDown() {
+        server.getScheduler().setEnabled(false);
+        server.reset();
+    }
+
+    @Test
+    void leavesCommandsWithoutDelimiterAlone() {
+        assertFalse(listener.receive(player, "list"));
+        assertEquals(0, server.getScheduler().getPending());
+    }
+
+    @Test
+    void replaysHeldCommandsInOrder() {
+        // Has the opening delimiter, but no prompt.
+        assertTrue(listener.receive(player, "say 1 < 2"));
+        assertTrue(listener.receive(player, "help"));
+        server.getScheduler().tick();
+
+        assertEquals(Arrays.asList("say 1 < 2", "help"), server.getDispatchedCommands());
+        assertFalse(listener.receive(player, "list"));
+    }
+
+    @Test
+    void replaysThroughPreprocessEventOnce() {
+        listener.receive(player, "say 1 < 2");
+        server.getScheduler().tick();
+
+        List<String> preprocessed = server.getCalledEvents().stream()
+                .filter(PlayerCommandPreprocessEvent.class::isInstance)
+                .map(PlayerCommandPreprocessEvent.class::cast)
+                .map(PlayerCommandPreprocessEvent::getMessage)
+                .collect(Collectors.toList());
+        assertEquals(Arrays.asList("/say 1 < 2"), preprocessed);
+        assertEquals(1, server.getCalledEvents().size());
+    }
+}
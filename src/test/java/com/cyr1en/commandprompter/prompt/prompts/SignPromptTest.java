@@ -0,0 +1,69 @@
+package com.cyr1en.commandprompter.prompt.prompts;
+
+import com.comphenix.protocol.ProtocolManager;
+import com.comphenix.protocol.events.PacketListener;
+import com.cyr1en.commandprompter.CommandPrompter;
+import com.cyr1en.commandprompter.fixture.Stub;
+import com.cyr1en.commandprompter.fixture.StubPlugin;
+import com.cyr1en.commandprompter.fixture.StubServer;
+import com.cyr1en.commandprompter.prompt.PromptContext;
+import com.cyr1en.commandprompter.prompt.ui.SignMenuFactory;
+import org.bukkit.World;
+import org.bukkit.entity.Player;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Sign prompts share the single packet listener of the sign menu factory, no matter how many of them were sent.
+ */
+class SignPromptTest {
+
+    private static final int PROMPTS = 50;
+
+    private final List<PacketListener> listeners = new ArrayList<>();
+    private StubServer server;
+    private CommandPrompter plugin;
+    private SignMenuFactory factory;
+
+    @BeforeEach
+    void setUp() {
+        server = StubServer.get();
+        plugin = StubPlugin.create(server);
+        ProtocolManager protocolManager = Stub.of(ProtocolManager.class)
+                .answer("addPacketListener", args -> listeners.add((PacketListener) args[0]))
+                .answer("removePacketListener", args -> listeners.remove((PacketListener) args[0]))
+                .build();
+        factory = new SignMenuFactory(plugin, protocolManager);
+    }
+
+    @AfterEach
+    void tearDown() {
+        factory.unregister();
+        server.reset();
+    }
+
+    @Test
+    void registersOnePacketListenerForAllPrompts() {
+        factory.register();
+        World world = server.world("world");
+        for (int i = 0; i < PROMPTS; i++) {
+            Player player = server.join("player" + i, world);
+            PromptContext context = new PromptContext(null, player, "msg");
+            new SignPrompt(plugin, context, "Name:{br}Message:", factory, plugin.getPluginLogger()).sendPrompt();
+            factory.register();
+        }
+        assertEquals(1, listeners.size());
+        assertSame(plugin, listeners.get(0).getPlugin());
+
+        factory.unregister();
+        assertTrue(listeners.isEmpty());
+    }
+}
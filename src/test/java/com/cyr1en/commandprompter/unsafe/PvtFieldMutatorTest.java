@@ -0,0 +1,108 @@
+package com.cyr1en.commandprompter.unsafe;
+
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Field;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+class PvtFieldMutatorTest {
+
+    @Test
+    void replacesInstanceField() throws Exception {
+        InstanceTarget target = new InstanceTarget();
+        PvtFieldMutator.forField("value").in(target).replaceWith("replaced");
+        assertEquals("replaced", target.getValue());
+    }
+
+    @Test
+    void replacesInstanceFinalField() throws Exception {
+        InstanceFinalTarget target = new InstanceFinalTarget();
+        PvtFieldMutator.forField("value").in(target).replaceWith("replaced");
+        assertEquals("replaced", target.getValue());
+    }
+
+    @Test
+    void replacesStaticFinalField() throws Exception {
+        assumeTrue(hasModifiersField(), "Field.modifiers is hidden on this JDK");
+        Object replacement = new Object();
+        PvtFieldMutator mutator = PvtFieldMutator.forField("VALUE").in(new StaticFinalTarget());
+        mutator.replaceWith(replacement);
+        assertSame(replacement, StaticFinalTarget.getValue());
+        assertEquals(replacement.hashCode(), mutator.getHashCode());
+    }
+
+    @Test
+    void failsOnStaticFinalFieldWithoutModifiers() throws Exception {
+        Object original = UnmodifiableTarget.getValue();
+        PvtFieldMutator mutator = PvtFieldMutator.forField("VALUE", () -> {
+            throw new NoSuchFieldException("modifiers");
+        }).in(new UnmodifiableTarget());
+        assertThrows(PvtFieldMutationException.class, () -> mutator.replaceWith(new Object()));
+        assertSame(original, UnmodifiableTarget.getValue());
+        assertEquals(original.hashCode(), mutator.getHashCode());
+    }
+
+    @Test
+    void readsCurrentValue() throws Exception {
+        InstanceTarget target = new InstanceTarget();
+        PvtFieldMutator mutator = PvtFieldMutator.forField("value").in(target);
+        assertEquals(String.class.getCanonicalName(), mutator.getClassName());
+        assertEquals("original".hashCode(), mutator.getHashCode());
+    }
+
+    @Test
+    void failsOnUnknownField() {
+        PvtFieldMutator mutator = PvtFieldMutator.forField("missing").in(new InstanceTarget());
+        assertThrows(NoSuchFieldException.class, () -> mutator.replaceWith("replaced"));
+    }
+
+    private static boolean hasModifiersField() {
+        try {
+            Field.class.getDeclaredField("modifiers");
+            return true;
+        } catch (NoSuchFieldException e) {
+            return false;
+        }
+    }
+
+    private static class InstanceTarget {
+        private String value = "original";
+
+        String getValue() {
+            return value;
+        }
+    }
+
+    private static class InstanceFinalTarget {
+        private final String value;
+
+        InstanceFinalTarget() {
+            // Assigned in the constructor so it isn't inlined as a constant.
+            this.value = "original";
+        }
+
+        String getValue() {
+            return value;
+        }
+    }
+
+    private static class StaticFinalTarget {
+        private static final Object VALUE = new Object();
+
+        static Object getValue() {
+            return VALUE;
+        }
+    }
+
+    private static class UnmodifiableTarget {
+        private static final Object VALUE = new Object();
+
+        static Object getValue() {
+            return VALUE;
+        }
+    }
+}
@@ -0,0 +1,33 @@
+package com.cyr1en.commandprompter.util;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class StartupGraphTest {
+
+    @Test
+    void failedSyncStageFailsFinish() {
+        StartupGraph graph = new StartupGraph(1);
+        IllegalStateException failure = new IllegalStateException("failed");
+        assertSame(failure, assertThrows(IllegalStateException.class, () -> graph.sync("fails", () -> {
+            throw failure;
+        })));
+        assertSame(failure, assertThrows(IllegalStateException.class, graph::finish));
+    }
+
+    @Test
+    void syncStageAfterFailedAsyncStage() {
+        StartupGraph graph = new StartupGraph(1);
+        IllegalStateException failure = new IllegalStateException("failed");
+        StartupGraph.Stage failing = graph.async("fails", () -> {
+            throw failure;
+        });
+        assertSame(failure, assertThrows(IllegalStateException.class, () -> graph.sync("after", () -> {
+        }, failing)));
+        assertSame(failure, assertThrows(IllegalStateException.class, graph::finish));
+        assertEquals(2, graph.getStages().size());
+    }
+}
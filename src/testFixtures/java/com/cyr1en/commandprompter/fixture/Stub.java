@@ -0,0 +1,112 @@
+package com.cyr1en.commandprompter.fixture;
+
+import java.lang.reflect.Proxy;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Lightweight stand-in for a Bukkit interface, backed by a {@link Proxy}.
+ *
+ * <p>Only the methods that were given an answer do something. Everything else returns
+ * false, zero, an empty collection or null. {@code equals} and {@code hashCode} are
+ * identity based, so stubs can be used as map keys like the real implementations.</p>
+ *
+ * <pre>{@code
+ *     World world = Stub.of(World.class).returns("getName", "world").build();
+ * }</pre>
+ *
+ * @param <T> interface to stub.
+ */
+public final class Stub<T> {
+
+    private static final Object[] NO_ARGS = new Object[0];
+
+    private final Class<T> type;
+    private final Map<String, Answer> answers;
+
+    private Stub(Class<T> type) {
+        this.type = type;
+        this.answers = new HashMap<>();
+    }
+
+    public static <T> Stub<T> of(Class<T> type) {
+        return new Stub<>(type);
+    }
+
+    /**
+     * Answer every overload of a method with a fixed value.
+     */
+    public Stub<T> returns(String method, Object value) {
+        return answer(method, args -> value);
+    }
+
+    /**
+     * Answer every overload of a method by calling back.
+     */
+    public Stub<T> answer(String method, Answer answer) {
+        answers.put(method, answer);
+        return this;
+    }
+
+    public T build() {
+        Map<String, Answer> answers = new HashMap<>(this.answers);
+        Object proxy = Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type}, (self, method, args) -> {
+            Object[] arguments = args == null ? NO_ARGS : args;
+            Answer answer = answers.get(method.getName());
+            if (answer != null)
+                return answer.answer(arguments);
+            String name = method.getName();
+            if (name.equals("equals") && arguments.length == 1)
+                return self == arguments[0];
+            if (name.equals("hashCode") && arguments.length == 0)
+                return System.identityHashCode(self);
+            if (name.equals("toString") && arguments.length == 0)
+                return type.getSimpleName() + "Stub@" + Integer.toHexString(System.identityHashCode(self));
+            if (name.equals("clone") && arguments.length == 0)
+                return self;
+            return defaultValue(method.getReturnType());
+        });
+        return type.cast(proxy);
+    }
+
+    private static Object defaultValue(Class<?> type) {
+        if (!type.isPrimitive()) {
+            if (type == List.class || type == Collection.class)
+                return Collections.emptyList();
+            if (type == Set.class)
+                return Collections.emptySet();
+            if (type == Map.class)
+                return Collections.emptyMap();
+            if (type == Optional.class)
+                return Optional.empty();
+            return null;
+        }
+        if (type == boolean.class)
+            return false;
+        if (type == int.class)
+            return 0;
+        if (type == long.class)
+            return 0L;
+        if (type == double.class)
+            return 0.0;
+        if (type == float.class)
+            return 0.0f;
+        if (type == short.class)
+            return (short) 0;
+        if (type == byte.class)
+            return (byte) 0;
+        if (type == char.class)
+            return '\0';
+        return null;
+    }
+
+    @FunctionalInterface
+    public interface Answer {
+        Object answer(Object[] args) throws Throwable;
+    }
+}
@@ -0,0 +1,101 @@
+package com.cyr1en.commandprompter.fixture;
+
+import com.cyr1en.commandprompter.CommandPrompter;
+import com.cyr1en.commandprompter.config.CommandPrompterConfig;
+import com.cyr1en.commandprompter.config.PromptConfig;
+import com.cyr1en.commandprompter.config.annotations.field.NodeDefault;
+import org.bukkit.plugin.PluginDescriptionFile;
+import org.bukkit.plugin.java.JavaPlugin;
+import org.bukkit.plugin.java.JavaPluginLoader;
+
+import java.io.File;
+import java.io.IOException;
+import java.lang.reflect.Field;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Builds a {@link CommandPrompter} for tests and benchmarks, without a plugin loader.
+ *
+ * <p>The plugin is created through the initialization constructor of {@link JavaPlugin},
+ * so {@code onEnable} never runs. Only the parts that prompts need are set up: both configs,
+ * metrics, the logger, messages, messenger, hooks (none hooked), chat prompt cache and
+ * prompt manager. The data folder is a fresh temporary directory.</p>
+ */
+public final class StubPlugin {
+
+    private StubPlugin() {
+    }
+
+    /**
+     * Create a plugin with the default configs.
+     */
+    public static CommandPrompter create(StubServer server) {
+        return create(server, defaults(CommandPrompterConfig.class), defaults(PromptConfig.class));
+    }
+
+    /**
+     * Create a plugin with the given configs.
+     *
+     * @param server       server the plugin runs on.
+     * @param config       main config, i.e. from {@link #defaults(Class)} with some nodes changed.
+     * @param promptConfig prompt config.
+     * @return a plugin that is ready for prompts.
+     */
+    @SuppressWarnings("deprecation") // JavaPluginLoader is only meant to be created by the server.
+    public static CommandPrompter create(StubServer server, CommandPrompterConfig config, PromptConfig promptConfig) {
+        File dataFolder;
+        try {
+            dataFolder = Files.createTempDirectory("CommandPrompter").toFile();
+        } catch (IOException e) {
+            throw new IllegalStateException("Unable to create a data folder for CommandPrompter", e);
+        }
+        dataFolder.deleteOnExit();
+        PluginDescriptionFile description =
+                new PluginDescriptionFile("CommandPrompter", "stub", CommandPrompter.class.getName());
+        return new LoaderlessPlugin(new JavaPluginLoader(server.getServer()), description, dataFolder,
+                new File(dataFolder, "CommandPrompter.jar"), config, promptConfig);
+    }
+
+    /**
+     * Create a configuration record with the {@link NodeDefault} of every node.
+     *
+     * @param configClass class of the configuration record.
+     * @return new record with the defaults.
+     */
+    public static <T> T defaults(Class<T> configClass) {
+        try {
+            T config = configClass.getDeclaredConstructor().newInstance();
+            for (Field field : configClass.getDeclaredFields()) {
+                NodeDefault nodeDefault = field.getAnnotation(NodeDefault.class);
+                if (nodeDefault == null) continue;
+                field.setAccessible(true);
+                field.set(config, parse(field.getType(), nodeDefault.value()));
+            }
+            return config;
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("Unable to create defaults of " + configClass.getSimpleName(), e);
+        }
+    }
+
+    private static Object parse(Class<?> type, String value) {
+        if (type == int.class)
+            return Integer.valueOf(value);
+        if (type == boolean.class)
+            return Boolean.valueOf(value);
+        if (type == double.class)
+            return Double.valueOf(value);
+        if (type == List.class)
+            return Arrays.stream(value.split(",\\s+")).collect(Collectors.toList());
+        return value;
+    }
+
+    private static final class LoaderlessPlugin extends CommandPrompter {
+        private LoaderlessPlugin(JavaPluginLoader loader, PluginDescriptionFile description, File dataFolder,
+                                 File file, CommandPrompterConfig config, PromptConfig promptConfig) {
+            super(loader, description, dataFolder, file, config, promptConfig);
+        }
+    }
+}
@@ -0,0 +1,153 @@
+package com.cyr1en.commandprompter.fixture;
+
+import org.bukkit.plugin.Plugin;
+import org.bukkit.scheduler.BukkitTask;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.function.Consumer;
+
+/**
+ * Scheduler of the {@link StubServer}, driven by calling {@link #tick()}.
+ *
+ * <p>Tasks are dropped unless the scheduler is enabled, so tests and benchmarks that never tick
+ * don't pile up tasks. Async tasks are treated like sync ones and run on the ticking
+ * thread.</p>
+ */
+public final class StubScheduler {
+
+    private static final StubTask DROPPED = new StubTask(-1, null, null, 0, -1);
+
+    private final PriorityQueue<StubTask> queue;
+    private long currentTick;
+    private int nextId;
+    private boolean enabled;
+
+    StubScheduler() {
+        this.queue = new PriorityQueue<>();
+        this.nextId = 1;
+    }
+
+    /**
+     * @param enabled whether tasks should be queued to run on {@link #tick()}, or dropped.
+     */
+    public synchronized void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    /**
+     * Advance one tick and run every task that is due.
+     *
+     * @return number of tasks that ran.
+     */
+    public int tick() {
+        List<StubTask> due = new ArrayList<>();
+        synchronized (this) {
+            currentTick++;
+            while (!queue.isEmpty() && queue.peek().runAt <= currentTick)
+                due.add(queue.poll());
+        }
+        for (StubTask task : due) {
+            if (task.cancelled) continue;
+            task.run();
+            if (task.period > 0 && !task.cancelled) {
+                synchronized (this) {
+                    task.runAt = currentTick + task.period;
+                    queue.add(task);
+                }
+            }
+        }
+        return due.size();
+    }
+
+    public synchronized long getCurrentTick() {
+        return currentTick;
+    }
+
+    /**
+     * @return number of tasks waiting to run, including cancelled ones that weren't removed yet.
+     */
+    public synchronized int getPending() {
+        queue.removeIf(task -> task.cancelled);
+        return queue.size();
+    }
+
+    /**
+     * Drop all queued tasks and start again at tick 0.
+     */
+    public synchronized void reset() {
+        queue.clear();
+        currentTick = 0;
+    }
+
+    synchronized BukkitTask schedule(Object plugin, Object task, long delay, long period) {
+        if (!enabled) return DROPPED;
+        StubTask scheduled = new StubTask(nextId++, (Plugin) plugin, task, currentTick + Math.max(1, delay),
+                period > 0 ? Math.max(1, period) : -1);
+        queue.add(scheduled);
+        return scheduled;
+    }
+
+    synchronized void cancel(int taskId) {
+        for (StubTask task : queue) {
+            if (task.id == taskId) task.cancelled = true;
+        }
+    }
+
+    private static final class StubTask implements BukkitTask, Comparable<StubTask> {
+        private final int id;
+        private final Plugin owner;
+        private final Object task;
+        private final long period;
+        private long runAt;
+        private volatile boolean cancelled;
+
+        private StubTask(int id, Plugin owner, Object task, long runAt, long period) {
+            this.id = id;
+            this.owner = owner;
+            this.task = task;
+            this.runAt = runAt;
+            this.period = period;
+        }
+
+        @SuppressWarnings("unchecked")
+        private void run() {
+            if (task instanceof Runnable)
+                ((Runnable) task).run();
+            else if (task instanceof Consumer)
+                ((Consumer<BukkitTask>) task).accept(this);
+        }
+
+        @Override
+        public int compareTo(StubTask other) {
+            int byTick = Long.compare(runAt, other.runAt);
+            return byTick != 0 ? byTick : Integer.compare(id, other.id);
+        }
+
+        @Override
+        public int getTaskId() {
+            return id;
+        }
+
+        @Override
+        public Plugin getOwner() {
+            return owner;
+        }
+
+        @Override
+        public boolean isSync() {
+            return true;
+        }
+
+        @Override
+        public boolean isCancelled() {
+            return cancelled;
+        }
+
+        @Override
+        public void cancel() {
+            cancelled = true;
+        }
+    }
+}
@@ -0,0 +1,183 @@
+package com.cyr1en.commandprompter.fixture;
+
+import org.bukkit.Bukkit;
+import org.bukkit.Server;
+import org.bukkit.World;
+import org.bukkit.entity.Player;
+import org.bukkit.event.Event;
+import org.bukkit.inventory.ItemFactory;
+import org.bukkit.inventory.meta.SkullMeta;
+import org.bukkit.plugin.PluginManager;
+import org.bukkit.scheduler.BukkitScheduler;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.Consumer;
+import java.util.logging.Logger;
+
+/**
+ * Stubbed server to run plugin code outside of Minecraft.
+ *
+ * <p>The server is installed with {@link Bukkit#setServer(Server)}, which only works once
+ * per JVM, so all tests and benchmarks share it through {@link #get()}. Scheduled tasks are dropped
+ * unless the {@link StubScheduler} is enabled, called events and dispatched commands are only
+ * recorded, and item metas are stubs that ignore what's set on them.</p>
+ */
+public final class StubServer {
+
+    private static StubServer instance;
+
+    private final Server server;
+    private final StubScheduler scheduler;
+    private final List<Player> onlinePlayers;
+    private final Map<String, World> worlds;
+    private final List<Event> calledEvents;
+    private final List<String> dispatchedCommands;
+
+    private StubServer() {
+        this.onlinePlayers = new ArrayList<>();
+        this.worlds = new HashMap<>();
+        this.calledEvents = new ArrayList<>();
+        this.dispatchedCommands = new ArrayList<>();
+
+        Logger logger = Logger.getLogger("CommandPrompter-Stub");
+        logger.setUseParentHandlers(false);
+
+        this.scheduler = new StubScheduler();
+        BukkitScheduler bukkitScheduler = Stub.of(BukkitScheduler.class)
+                .answer("runTask", args -> scheduler.schedule(args[0], args[1], 0, -1))
+                .answer("runTaskLater", args -> scheduler.schedule(args[0], args[1], (long) args[2], -1))
+                .answer("runTaskTimer", args -> scheduler.schedule(args[0], args[1], (long) args[2], (long) args[3]))
+                .answer("runTaskAsynchronously", args -> scheduler.schedule(args[0], args[1], 0, -1))
+                .answer("runTaskLaterAsynchronously",
+                        args -> scheduler.schedule(args[0], args[1], (long) args[2], -1))
+                .answer("runTaskTimerAsynchronously",
+                        args -> scheduler.schedule(args[0], args[1], (long) args[2], (long) args[3]))
+                .answer("cancelTask", args -> {
+                    scheduler.cancel((int) args[0]);
+                    return null;
+                })
+                .build();
+        ItemFactory itemFactory = Stub.of(ItemFactory.class)
+                .answer("getItemMeta", args -> Stub.of(SkullMeta.class).build())
+                .returns("isApplicable", true)
+                .answer("asMetaFor", args -> args[0])
+                .answer("updateMaterial", args -> args[1])
+                .build();
+        PluginManager pluginManager = Stub.of(PluginManager.class)
+                .answer("callEvent", args -> {
+                    calledEvents.add((Event) args[0]);
+                    return null;
+                })
+                .build();
+
+        this.server = Stub.of(Server.class)
+                .returns("getLogger", logger)
+                .returns("getName", "StubServer")
+                .returns("getVersion", "bench")
+                .returns("getBukkitVersion", "1.19.2-R0.1-SNAPSHOT")
+                .returns("getScheduler", bukkitScheduler)
+                .returns("getPluginManager", pluginManager)
+                .returns("getItemFactory", itemFactory)
+                .answer("getOnlinePlayers", args -> new ArrayList<>(onlinePlayers))
+                .answer("getWorlds", args -> new ArrayList<>(worlds.values()))
+                .answer("dispatchCommand", args -> dispatchedCommands.add((String) args[1]))
+                .build();
+        Bukkit.setServer(server);
+    }
+
+    public static synchronized StubServer get() {
+        if (instance == null)
+            instance = new StubServer();
+        return instance;
+    }
+
+    public Server getServer() {
+        return server;
+    }
+
+    public StubScheduler getScheduler() {
+        return scheduler;
+    }
+
+    /**
+     * Get a world by name, creating it if it doesn't exist yet.
+     */
+    public World world(String name) {
+        return worlds.computeIfAbsent(name, n -> Stub.of(World.class)
+                .returns("getName", n)
+                .returns("getUID", uuid("world:" + n))
+                .build());
+    }
+
+    /**
+     * Create a player and add it to the online players.
+     *
+     * @param name  name of the player.
+     * @param world world the player is in.
+     * @return the new player.
+     */
+    public Player join(String name, World world) {
+        return join(name, world, stub -> {
+        });
+    }
+
+    /**
+     * Create a player with extra answers and add it to the online players.
+     *
+     * @param name      name of the player.
+     * @param world     world the player is in.
+     * @param customize adds or overrides answers of the player stub.
+     * @return the new player.
+     */
+    public Player join(String name, World world, Consumer<Stub<Player>> customize) {
+        Stub<Player> stub = Stub.of(Player.class)
+                .returns("getName", name)
+                .returns("getDisplayName", name)
+                .returns("getUniqueId", uuid("player:" + name))
+                .returns("getWorld", world)
+                .returns("isOnline", true)
+                .returns("hasPermission", true)
+                .returns("getServer", server);
+        customize.accept(stub);
+        Player player = stub.build();
+        onlinePlayers.add(player);
+        return player;
+    }
+
+    public List<Player> getOnlinePlayers() {
+        return onlinePlayers;
+    }
+
+    /**
+     * @return events passed to {@link PluginManager#callEvent}, in the order they were called.
+     */
+    public List<Event> getCalledEvents() {
+        return calledEvents;
+    }
+
+    /**
+     * @return command lines passed to {@link Server#dispatchCommand}, in the order they were dispatched.
+     */
+    public List<String> getDispatchedCommands() {
+        return dispatchedCommands;
+    }
+
+    /**
+     * Remove all players, tasks, events and commands, so the next run starts from an empty server.
+     */
+    public void reset() {
+        onlinePlayers.clear();
+        calledEvents.clear();
+        dispatchedCommands.clear();
+        scheduler.reset();
+    }
+
+    private static UUID uuid(String seed) {
+        return UUID.nameUUIDFromBytes(seed.getBytes(StandardCharsets.UTF_8));
+    }
+}